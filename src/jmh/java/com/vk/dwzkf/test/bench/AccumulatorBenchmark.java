@@ -0,0 +1,142 @@
+package com.vk.dwzkf.test.bench;
+
+import com.vk.dwzkf.test.Accumulator;
+import com.vk.dwzkf.test.AccumulatorFactory;
+import com.vk.dwzkf.test.StateObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Горячие пути {@link Accumulator}: прием по одному, прием пачкой и {@code drain} по каждому процессу.
+ * <p>
+ * Одна операция - весь набор уведомлений {@link Scenario} по {@code processes} процессам,
+ * каждый замер получает новый аккумулятор.
+ * <p>
+ * У {@code LOCK_FREE}, {@code SHARDED} и {@code ACTOR} прием только ставит уведомление в очередь,
+ * а разбирают ее {@code drain} или поток раздела/актора. Поэтому {@code accept} и {@code acceptAll} для них -
+ * стоимость постановки в очередь, а {@code drain} включает разбор того, что осталось от заполнения.
+ * Движки между собой сравниваются по {@code acceptAndDrain}: прием пачкой и {@code drain} по каждому процессу
+ * в одной операции, после которого все уведомления гарантированно разобраны
+ * @since 16.10.2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccumulatorBenchmark {
+    private static final Consumer<StateObject> IGNORE = stateObject -> {
+    };
+
+    @Param({"SINGLE_THREADED", "STRIPED", "LOCK_FREE", "SHARDED", "ACTOR"})
+    public AccumulatorFactory.Engine engine;
+    @Param({"IN_ORDER", "REVERSED", "DUPLICATE_HEAVY", "EARLY_FINAL"})
+    public Scenario scenario;
+    @Param({"1000", "100000"})
+    public int processes;
+    @Param({"8", "64"})
+    public int notificationsPerProcess;
+
+    private long[] processIds;
+    private List<StateObject> notifications;
+    private AccumulatorFactory factory;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        processIds = new long[processes];
+        for (int i = 0; i < processes; i++) {
+            processIds[i] = i + 1;
+        }
+        notifications = scenario.notifications(processIds, notificationsPerProcess);
+        factory = AccumulatorFactory.builder()
+                .engine(engine)
+                .expectedProcesses(processes)
+                .build();
+    }
+
+    @Benchmark
+    public void accept(EmptyAccumulator state) {
+        Accumulator accumulator = state.accumulator;
+        for (StateObject stateObject : notifications) {
+            accumulator.accept(stateObject);
+        }
+    }
+
+    @Benchmark
+    public void acceptAll(EmptyAccumulator state) {
+        state.accumulator.acceptAll(notifications);
+    }
+
+    @Benchmark
+    public void acceptAndDrain(EmptyAccumulator state, Blackhole blackhole) {
+        Accumulator accumulator = state.accumulator;
+        accumulator.acceptAll(notifications);
+        for (long processId : processIds) {
+            blackhole.consume(accumulator.drain(processId));
+        }
+    }
+
+    @Benchmark
+    public void drain(FilledAccumulator state, Blackhole blackhole) {
+        Accumulator accumulator = state.accumulator;
+        for (long processId : processIds) {
+            blackhole.consume(accumulator.drain(processId));
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class EmptyAccumulator {
+        private Accumulator accumulator;
+
+        @Setup(Level.Invocation)
+        public void setUp(AccumulatorBenchmark benchmark) {
+            accumulator = benchmark.factory.getInstance();
+        }
+
+        /**
+         * {@code close()} не ждет уже запущенных задач на чужом исполнителе ({@code ACTOR} на
+         * {@code ForkJoinPool.commonPool()}), поэтому сначала каждый процесс разбирается до конца:
+         * иначе работа почтовых ящиков этого замера шла бы во время следующего
+         */
+        @TearDown(Level.Invocation)
+        public void tearDown(AccumulatorBenchmark benchmark) {
+            for (long processId : benchmark.processIds) {
+                accumulator.drain(processId, IGNORE);
+            }
+            accumulator.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class FilledAccumulator {
+        private Accumulator accumulator;
+
+        @Setup(Level.Invocation)
+        public void setUp(AccumulatorBenchmark benchmark) {
+            accumulator = benchmark.factory.getInstance();
+            accumulator.acceptAll(benchmark.notifications);
+        }
+
+        @TearDown(Level.Invocation)
+        public void tearDown() {
+            accumulator.close();
+        }
+    }
+}
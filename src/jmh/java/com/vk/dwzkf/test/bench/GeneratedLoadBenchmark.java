@@ -0,0 +1,82 @@
+package com.vk.dwzkf.test.bench;
+
+import com.vk.dwzkf.test.Accumulator;
+import com.vk.dwzkf.test.AccumulatorFactory;
+import com.vk.dwzkf.test.StateObject;
+import com.vk.dwzkf.test.load.LoadGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Прием и {@code drainReady} потока из {@link LoadGenerator}.
+ * <p>
+ * Одна операция - весь поток по {@code processes} процессам, каждый замер получает новый аккумулятор
+ * @since 16.10.2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GeneratedLoadBenchmark {
+    @Param({"SINGLE_THREADED", "STRIPED", "LOCK_FREE", "SHARDED", "ACTOR"})
+    public AccumulatorFactory.Engine engine;
+    @Param({"100000"})
+    public int processes;
+    @Param({"0", "64", "4096"})
+    public int reorderDistance;
+    @Param({"0", "0.2"})
+    public double duplicateRate;
+    @Param({"0", "0.1"})
+    public double lateFinalRate;
+
+    private List<StateObject> notifications;
+    private AccumulatorFactory factory;
+    private Accumulator accumulator;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        notifications = LoadGenerator.builder()
+                .reorderDistance(reorderDistance)
+                .duplicateRate(duplicateRate)
+                .lateFinalRate(lateFinalRate)
+                .build()
+                .generate(1, processes);
+        factory = AccumulatorFactory.builder()
+                .engine(engine)
+                .expectedProcesses(processes)
+                .build();
+    }
+
+    @Setup(Level.Invocation)
+    public void newAccumulator() {
+        accumulator = factory.getInstance();
+    }
+
+    @TearDown(Level.Invocation)
+    public void closeAccumulator() {
+        accumulator.close();
+    }
+
+    @Benchmark
+    public Map<Long, List<StateObject>> acceptAllThenDrainReady() {
+        accumulator.acceptAll(notifications);
+        return accumulator.drainReady();
+    }
+}
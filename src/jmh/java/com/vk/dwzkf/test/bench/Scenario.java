@@ -0,0 +1,101 @@
+package com.vk.dwzkf.test.bench;
+
+import com.vk.dwzkf.test.State;
+import com.vk.dwzkf.test.StateObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Порядок доставки уведомлений одного процесса.
+ * <p>
+ * Основа каждого сценария - проход {@code START1, MID1, MID2, MID1, ..., FINAL1} с {@code seqNo} по порядку
+ * @since 16.10.2026
+ */
+public enum Scenario {
+    /**
+     * Уведомления приходят в порядке {@code seqNo}
+     */
+    IN_ORDER {
+        @Override
+        List<StateObject> deliver(List<StateObject> walk) {
+            return walk;
+        }
+    },
+    /**
+     * Уведомления приходят в обратном порядке
+     */
+    REVERSED {
+        @Override
+        List<StateObject> deliver(List<StateObject> walk) {
+            List<StateObject> result = new ArrayList<>(walk);
+            Collections.reverse(result);
+            return result;
+        }
+    },
+    /**
+     * Каждое {@code MID1}/{@code MID2} повторяется еще дважды перед финальным уведомлением
+     */
+    DUPLICATE_HEAVY {
+        @Override
+        List<StateObject> deliver(List<StateObject> walk) {
+            List<StateObject> result = new ArrayList<>(walk.subList(0, walk.size() - 1));
+            List<StateObject> mids = walk.subList(1, walk.size() - 1);
+            result.addAll(mids);
+            result.addAll(mids);
+            result.add(walk.get(walk.size() - 1));
+            return result;
+        }
+    },
+    /**
+     * Финальные уведомления ({@code FINAL1} и лишнее {@code FINAL2}) приходят раньше всего остального
+     */
+    EARLY_FINAL {
+        @Override
+        List<StateObject> deliver(List<StateObject> walk) {
+            StateObject last = walk.get(walk.size() - 1);
+            List<StateObject> result = new ArrayList<>(walk.size() + 1);
+            result.add(new StateObject(last.processIdValue(), State.FINAL2, last.seqNoValue() + 1));
+            result.add(last);
+            result.addAll(walk.subList(0, walk.size() - 1));
+            return result;
+        }
+    };
+
+    abstract List<StateObject> deliver(List<StateObject> walk);
+
+    /**
+     * Уведомления всех процессов, перемешанные по кругу: сначала первое уведомление каждого процесса,
+     * затем второе и так далее
+     * @param notificationsPerProcess длина прохода, не меньше 3
+     */
+    public List<StateObject> notifications(long[] processIds, int notificationsPerProcess) {
+        List<List<StateObject>> perProcess = new ArrayList<>(processIds.length);
+        int length = 0;
+        for (long processId : processIds) {
+            List<StateObject> delivered = deliver(walk(processId, notificationsPerProcess));
+            perProcess.add(delivered);
+            length = Math.max(length, delivered.size());
+        }
+        List<StateObject> result = new ArrayList<>(processIds.length * length);
+        for (int i = 0; i < length; i++) {
+            for (List<StateObject> delivered : perProcess) {
+                if (i < delivered.size()) {
+                    result.add(delivered.get(i));
+                }
+            }
+        }
+        return result;
+    }
+
+    private static List<StateObject> walk(long processId, int length) {
+        List<StateObject> walk = new ArrayList<>(length);
+        walk.add(new StateObject(processId, State.START1, 1));
+        for (int seqNo = 2; seqNo < length; seqNo++) {
+            walk.add(new StateObject(processId, seqNo % 2 == 0 ? State.MID1 : State.MID2, seqNo));
+        }
+        walk.add(new StateObject(processId, State.FINAL1, length));
+        return walk;
+    }
+}
@@ -0,0 +1,64 @@
+package com.vk.dwzkf.test.soak;
+
+import com.vk.dwzkf.test.AccumulatorFactory;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Параметры {@link SoakRunner}, задаются аргументами вида {@code key=value}
+ * @since 16.10.2026
+ */
+final class SoakOptions {
+    final AccumulatorFactory.Engine engine;
+    final int producers;
+    final long durationSeconds;
+    final long drainIntervalMillis;
+    /**
+     * Сколько новых процессов производитель берет за раз
+     */
+    final int processesPerBlock;
+    final int reorderDistance;
+    final double duplicateRate;
+    final double dropRate;
+    final double lateFinalRate;
+    /**
+     * Сколько процессов одновременно помнят время доставки своих уведомлений для сквозной задержки
+     */
+    final int trackedProcesses;
+    final Path report;
+
+    private SoakOptions(Map<String, String> values) {
+        engine = AccumulatorFactory.Engine.valueOf(values.getOrDefault("engine", "STRIPED"));
+        producers = Integer.parseInt(values.getOrDefault("producers", "4"));
+        durationSeconds = Long.parseLong(values.getOrDefault("durationSeconds", "60"));
+        drainIntervalMillis = Long.parseLong(values.getOrDefault("drainIntervalMillis", "10"));
+        processesPerBlock = Integer.parseInt(values.getOrDefault("processesPerBlock", "1000"));
+        reorderDistance = Integer.parseInt(values.getOrDefault("reorderDistance", "64"));
+        duplicateRate = Double.parseDouble(values.getOrDefault("duplicateRate", "0.05"));
+        dropRate = Double.parseDouble(values.getOrDefault("dropRate", "0.01"));
+        lateFinalRate = Double.parseDouble(values.getOrDefault("lateFinalRate", "0.05"));
+        trackedProcesses = Integer.parseInt(values.getOrDefault("trackedProcesses", String.valueOf(1 << 18)));
+        report = Path.of(values.getOrDefault("report", "build/soak/soak-" + engine + ".json"));
+        if (engine == AccumulatorFactory.Engine.SINGLE_THREADED) {
+            throw new IllegalArgumentException("SINGLE_THREADED engine cannot be driven by concurrent producers");
+        }
+        if (producers < 1 || durationSeconds < 1 || drainIntervalMillis < 1 || processesPerBlock < 1
+                || trackedProcesses < 1) {
+            throw new IllegalArgumentException("numeric options must be positive: " + values);
+        }
+    }
+
+    static SoakOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("expected key=value, got " + arg);
+            }
+            values.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        return new SoakOptions(values);
+    }
+}
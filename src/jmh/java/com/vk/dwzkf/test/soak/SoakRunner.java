@@ -0,0 +1,201 @@
+package com.vk.dwzkf.test.soak;
+
+import com.vk.dwzkf.test.Accumulator;
+import com.vk.dwzkf.test.AccumulatorFactory;
+import com.vk.dwzkf.test.StateObject;
+import com.vk.dwzkf.test.load.LoadGenerator;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Длительный прогон аккумулятора под нагрузкой.
+ * <p>
+ * {@code producers} потоков непрерывно передают в {@link Accumulator#accept(StateObject)} уведомления
+ * новых процессов из {@link LoadGenerator}, отдельный поток раз в {@code drainIntervalMillis} выполняет
+ * {@link Accumulator#drainReady()}. Записываются задержки {@code accept}, {@code drainReady} и сквозная задержка
+ * уведомления от последней доставки до выдачи, а также использование кучи и работа сборщика мусора.
+ * Итог - JSON-отчет в {@code report} и в стандартный вывод.
+ * <p>
+ * Запуск: {@code ./gradlew soak -PsoakArgs="engine=LOCK_FREE producers=8 durationSeconds=600"}
+ * @since 16.10.2026
+ */
+public final class SoakRunner {
+    private final SoakOptions options;
+    private final Accumulator accumulator;
+    private final LoadGenerator generator;
+    private final AtomicLong nextProcessId = new AtomicLong(1);
+    private final AtomicBoolean running = new AtomicBoolean(true);
+    /**
+     * Время последней доставки уведомления, ячейка {@code (processId mod trackedProcesses) * maxWalkLength + seqNo - 1}
+     */
+    private final AtomicLongArray deliveredAt;
+    private final int maxWalkLength;
+    private final Histogram drainLatency = new Histogram(3);
+    private final Histogram endToEndDelay = new Histogram(3);
+    private long emitted;
+    private long drains;
+    private long maxHeapUsed;
+
+    private SoakRunner(SoakOptions options) {
+        this.options = options;
+        this.accumulator = AccumulatorFactory.builder().engine(options.engine).build().getInstance();
+        this.maxWalkLength = 8;
+        this.generator = LoadGenerator.builder()
+                .walkLength(3, maxWalkLength)
+                .concurrentProcesses(options.processesPerBlock)
+                .reorderDistance(options.reorderDistance)
+                .duplicateRate(options.duplicateRate)
+                .dropRate(options.dropRate)
+                .lateFinalRate(options.lateFinalRate)
+                .build();
+        this.deliveredAt = new AtomicLongArray(Math.multiplyExact(options.trackedProcesses, maxWalkLength));
+    }
+
+    public static void main(String[] args) throws Exception {
+        SoakRunner runner = new SoakRunner(SoakOptions.parse(args));
+        String report = runner.run();
+        Files.createDirectories(runner.options.report.toAbsolutePath().getParent());
+        Files.writeString(runner.options.report, report, StandardCharsets.UTF_8);
+        System.out.println(report);
+    }
+
+    private String run() throws InterruptedException, IOException {
+        List<Producer> producers = new ArrayList<>();
+        for (int i = 0; i < options.producers; i++) {
+            Producer producer = new Producer(i);
+            producers.add(producer);
+            producer.thread.start();
+        }
+        long start = System.nanoTime();
+        long deadline = start + options.durationSeconds * 1_000_000_000L;
+        long nextDrain = start;
+        while (System.nanoTime() < deadline) {
+            nextDrain += options.drainIntervalMillis * 1_000_000L;
+            long sleep = nextDrain - System.nanoTime();
+            if (sleep > 0) {
+                Thread.sleep(sleep / 1_000_000L, (int) (sleep % 1_000_000L));
+            }
+            drainReady();
+        }
+        running.set(false);
+        Histogram acceptLatency = new Histogram(3);
+        long accepted = 0;
+        for (Producer producer : producers) {
+            producer.thread.join();
+            acceptLatency.add(producer.acceptLatency);
+            accepted += producer.accepted;
+        }
+        drainReady();
+        long elapsed = System.nanoTime() - start;
+        accumulator.close();
+        return report(elapsed, accepted, acceptLatency);
+    }
+
+    private void drainReady() {
+        long start = System.nanoTime();
+        Map<Long, List<StateObject>> ready = accumulator.drainReady();
+        long end = System.nanoTime();
+        drainLatency.recordValue(end - start);
+        drains++;
+        for (List<StateObject> stateObjects : ready.values()) {
+            for (StateObject stateObject : stateObjects) {
+                endToEndDelay.recordValue(Math.max(0, end - deliveredAt.get(slot(stateObject))));
+                emitted++;
+            }
+        }
+        maxHeapUsed = Math.max(maxHeapUsed, ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed());
+    }
+
+    private int slot(StateObject stateObject) {
+        long process = Math.floorMod(stateObject.processIdValue(), (long) options.trackedProcesses);
+        return (int) (process * maxWalkLength + stateObject.seqNoValue() - 1);
+    }
+
+    private String report(long elapsedNanos, long accepted, Histogram acceptLatency) {
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        StringBuilder json = new StringBuilder();
+        json.append("{\n");
+        json.append("  \"engine\": \"").append(options.engine).append("\",\n");
+        json.append("  \"producers\": ").append(options.producers).append(",\n");
+        json.append("  \"elapsedSeconds\": ").append(format(elapsedNanos / 1e9)).append(",\n");
+        json.append("  \"load\": {\"reorderDistance\": ").append(options.reorderDistance)
+                .append(", \"duplicateRate\": ").append(format(options.duplicateRate))
+                .append(", \"dropRate\": ").append(format(options.dropRate))
+                .append(", \"lateFinalRate\": ").append(format(options.lateFinalRate)).append("},\n");
+        json.append("  \"accepted\": ").append(accepted).append(",\n");
+        json.append("  \"acceptedPerSecond\": ").append(format(accepted / (elapsedNanos / 1e9))).append(",\n");
+        json.append("  \"emitted\": ").append(emitted).append(",\n");
+        json.append("  \"drains\": ").append(drains).append(",\n");
+        json.append("  \"acceptLatencyNanos\": ").append(percentiles(acceptLatency)).append(",\n");
+        json.append("  \"drainLatencyNanos\": ").append(percentiles(drainLatency)).append(",\n");
+        json.append("  \"endToEndDelayNanos\": ").append(percentiles(endToEndDelay)).append(",\n");
+        json.append("  \"heap\": {\"maxUsedBytes\": ").append(maxHeapUsed)
+                .append(", \"usedBytes\": ").append(heap.getUsed())
+                .append(", \"committedBytes\": ").append(heap.getCommitted()).append("},\n");
+        json.append("  \"gc\": [");
+        List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+        for (int i = 0; i < collectors.size(); i++) {
+            GarbageCollectorMXBean collector = collectors.get(i);
+            json.append(i == 0 ? "\n" : ",\n");
+            json.append("    {\"name\": \"").append(collector.getName())
+                    .append("\", \"count\": ").append(collector.getCollectionCount())
+                    .append(", \"timeMillis\": ").append(collector.getCollectionTime()).append("}");
+        }
+        json.append("\n  ]\n");
+        json.append("}\n");
+        return json.toString();
+    }
+
+    private static String percentiles(Histogram histogram) {
+        return "{\"count\": " + histogram.getTotalCount()
+                + ", \"mean\": " + format(histogram.getMean())
+                + ", \"p50\": " + histogram.getValueAtPercentile(50)
+                + ", \"p90\": " + histogram.getValueAtPercentile(90)
+                + ", \"p99\": " + histogram.getValueAtPercentile(99)
+                + ", \"p999\": " + histogram.getValueAtPercentile(99.9)
+                + ", \"max\": " + histogram.getMaxValue() + "}";
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.3f", value);
+    }
+
+    private final class Producer implements Runnable {
+        private final Thread thread;
+        private final Histogram acceptLatency = new Histogram(3);
+        private long accepted;
+
+        private Producer(int index) {
+            thread = new Thread(this, "soak-producer-" + index);
+        }
+
+        @Override
+        public void run() {
+            while (running.get()) {
+                long firstProcessId = nextProcessId.getAndAdd(options.processesPerBlock);
+                generator.generate(firstProcessId, options.processesPerBlock, this::accept);
+            }
+        }
+
+        private void accept(StateObject stateObject) {
+            long start = System.nanoTime();
+            deliveredAt.set(slot(stateObject), start);
+            accumulator.accept(stateObject);
+            acceptLatency.recordValue(System.nanoTime() - start);
+            accepted++;
+        }
+    }
+}
@@ -1,12 +1,16 @@
 package com.vk.dwzkf.test;
 
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 /**
+ * Реализации со своими потоками или исполнителями освобождают их в {@link #close()},
+ * для остальных закрытие ничего не делает
  * @author Roman Shageev
  * @since 12.08.2024
  */
-public interface Accumulator {
+public interface Accumulator extends AutoCloseable {
     /**
      * Принимает в себя N уведомлений
      * @param stateObjects список уведомлений
@@ -25,4 +29,37 @@ public interface Accumulator {
      * @return согласованный список уведомлений максимальной длины с учетом порядка и приоритета
      */
     List<StateObject> drain(Long processId);
+
+    /**
+     * То же, что {@link #drain(Long)}, но уведомления по одному передаются в {@code sink} без промежуточного списка.
+     * {@code sink} вызывается синхронно в потоке вызова и не должен обращаться к аккумулятору.
+     * Если {@code sink} бросил исключение, не принятое им уведомление и следующие за ним остаются в аккумуляторе.
+     * <p>
+     * Реализация по умолчанию - для старых реализаций интерфейса: она передает в {@code sink} готовый список
+     * {@link #drain(Long)}, и при исключении в {@code sink} остаток списка теряется
+     * @param processId ID процесса по которому надо достать уведомления
+     * @param sink получатель уведомлений в порядке согласованного списка
+     */
+    default void drain(long processId, Consumer<? super StateObject> sink) {
+        drain(Long.valueOf(processId)).forEach(sink);
+    }
+
+    /**
+     * Выполняет {@link #drain(Long)} для всех процессов, по которым с прошлого раза пришли уведомления,
+     * которые можно выдать. Процессы без изменений не просматриваются.
+     * <p>
+     * Необязательная операция: реализация по умолчанию ее не поддерживает
+     * @return непустые согласованные списки уведомлений по ID процесса
+     * @throws UnsupportedOperationException если реализация не отслеживает готовые процессы
+     */
+    default Map<Long, List<StateObject>> drainReady() {
+        throw new UnsupportedOperationException("drainReady");
+    }
+
+    /**
+     * Освобождает потоки реализации, после закрытия аккумулятор может отклонять вызовы
+     */
+    @Override
+    default void close() {
+    }
 }
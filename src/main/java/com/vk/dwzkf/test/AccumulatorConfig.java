@@ -0,0 +1,75 @@
+package com.vk.dwzkf.test;
+
+import java.util.function.LongConsumer;
+
+/**
+ * Параметры реализаций {@link Accumulator}, собираются через {@link AccumulatorFactory#builder()}
+ * @since 16.10.2026
+ */
+public final class AccumulatorConfig {
+    public static final AccumulatorConfig DEFAULT = new AccumulatorConfig(0, 4, EvictionPolicy.TOMBSTONE,
+            AccumulatorMetrics.NOOP, Runtime.getRuntime().availableProcessors(), 8192, processId -> {
+            });
+
+    /**
+     * Ожидаемое количество одновременно открытых процессов, по нему заранее выделяется таблица процессов
+     */
+    private final int expectedProcesses;
+    /**
+     * Начальная емкость очереди ожидающих уведомлений одного состояния процесса
+     */
+    private final int initialCapacity;
+    private final EvictionPolicy evictionPolicy;
+    private final AccumulatorMetrics metrics;
+    /**
+     * Количество разделов {@link AccumulatorFactory.Engine#SHARDED}
+     */
+    private final int shards;
+    /**
+     * Емкость входящей очереди раздела {@link AccumulatorFactory.Engine#SHARDED}
+     */
+    private final int ringCapacity;
+    /**
+     * Вызывается с ID процесса, выдавшего финальное уведомление
+     */
+    private final LongConsumer finalizedListener;
+
+    AccumulatorConfig(int expectedProcesses, int initialCapacity, EvictionPolicy evictionPolicy,
+                      AccumulatorMetrics metrics, int shards, int ringCapacity, LongConsumer finalizedListener) {
+        this.expectedProcesses = expectedProcesses;
+        this.initialCapacity = initialCapacity;
+        this.evictionPolicy = evictionPolicy;
+        this.metrics = metrics;
+        this.shards = shards;
+        this.ringCapacity = ringCapacity;
+        this.finalizedListener = finalizedListener;
+    }
+
+    public int getExpectedProcesses() {
+        return expectedProcesses;
+    }
+
+    public int getInitialCapacity() {
+        return initialCapacity;
+    }
+
+    public EvictionPolicy getEvictionPolicy() {
+        return evictionPolicy;
+    }
+
+    public AccumulatorMetrics getMetrics() {
+        return metrics;
+    }
+
+    public int getShards() {
+        return shards;
+    }
+
+    public int getRingCapacity() {
+        return ringCapacity;
+    }
+
+    public LongConsumer getFinalizedListener() {
+        return finalizedListener;
+    }
+}
@@ -1,13 +1,169 @@
 package com.vk.dwzkf.test;
 
 import com.vk.dwzkf.test.impl.AccumulatorImpl;
+import com.vk.dwzkf.test.impl.ActorAccumulator;
+import com.vk.dwzkf.test.impl.LockFreeAccumulator;
+import com.vk.dwzkf.test.impl.ShardedAccumulator;
+import com.vk.dwzkf.test.impl.StripedAccumulator;
+
+import java.util.Objects;
+import java.util.function.LongConsumer;
 
 /**
+ * Фабрика аккумуляторов.
+ * <p>
+ * {@code new AccumulatorFactory()} создает однопоточный {@link AccumulatorImpl} с параметрами по умолчанию,
+ * реализация и ее параметры выбираются через {@link #builder()}
  * @author Roman Shageev
  * @since 12.08.2024
  */
 public class AccumulatorFactory {
+    private final Engine engine;
+    private final AccumulatorConfig config;
+
+    public AccumulatorFactory() {
+        this(Engine.SINGLE_THREADED, AccumulatorConfig.DEFAULT);
+    }
+
+    private AccumulatorFactory(Engine engine, AccumulatorConfig config) {
+        this.engine = engine;
+        this.config = config;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return новый аккумулятор; {@link Engine#SHARDED} и {@link Engine#ACTOR} держат свои потоки,
+     * такой аккумулятор нужно закрыть через {@link Accumulator#close()}
+     */
     public Accumulator getInstance() {
-        return new AccumulatorImpl();
+        switch (engine) {
+            case STRIPED:
+                return new StripedAccumulator(config);
+            case LOCK_FREE:
+                return new LockFreeAccumulator(config);
+            case SHARDED:
+                return new ShardedAccumulator(config);
+            case ACTOR:
+                return new ActorAccumulator(config);
+            case SINGLE_THREADED:
+            default:
+                return new AccumulatorImpl(config);
+        }
+    }
+
+    public Engine getEngine() {
+        return engine;
+    }
+
+    public AccumulatorConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * Реализации {@link Accumulator}
+     */
+    public enum Engine {
+        /**
+         * {@link AccumulatorImpl}, не потокобезопасен
+         */
+        SINGLE_THREADED,
+        /**
+         * {@link StripedAccumulator}, блокировка по процессу
+         */
+        STRIPED,
+        /**
+         * {@link LockFreeAccumulator}, прием без блокировок
+         */
+        LOCK_FREE,
+        /**
+         * {@link ShardedAccumulator}, однопоточные разделы со своими потоками
+         */
+        SHARDED,
+        /**
+         * {@link ActorAccumulator}, актор на процесс
+         */
+        ACTOR
+    }
+
+    public static final class Builder {
+        private Engine engine = Engine.SINGLE_THREADED;
+        private int expectedProcesses = AccumulatorConfig.DEFAULT.getExpectedProcesses();
+        private int initialCapacity = AccumulatorConfig.DEFAULT.getInitialCapacity();
+        private EvictionPolicy evictionPolicy = AccumulatorConfig.DEFAULT.getEvictionPolicy();
+        private AccumulatorMetrics metrics = AccumulatorConfig.DEFAULT.getMetrics();
+        private int shards = AccumulatorConfig.DEFAULT.getShards();
+        private int ringCapacity = AccumulatorConfig.DEFAULT.getRingCapacity();
+        private LongConsumer finalizedListener = AccumulatorConfig.DEFAULT.getFinalizedListener();
+
+        private Builder() {
+        }
+
+        public Builder engine(Engine engine) {
+            this.engine = Objects.requireNonNull(engine, "engine");
+            return this;
+        }
+
+        public Builder expectedProcesses(int expectedProcesses) {
+            this.expectedProcesses = requireNonNegative(expectedProcesses, "expectedProcesses");
+            return this;
+        }
+
+        public Builder initialCapacity(int initialCapacity) {
+            this.initialCapacity = requirePositive(initialCapacity, "initialCapacity");
+            return this;
+        }
+
+        public Builder evictionPolicy(EvictionPolicy evictionPolicy) {
+            this.evictionPolicy = Objects.requireNonNull(evictionPolicy, "evictionPolicy");
+            return this;
+        }
+
+        public Builder metrics(AccumulatorMetrics metrics) {
+            this.metrics = Objects.requireNonNull(metrics, "metrics");
+            return this;
+        }
+
+        public Builder shards(int shards) {
+            this.shards = requirePositive(shards, "shards");
+            return this;
+        }
+
+        public Builder ringCapacity(int ringCapacity) {
+            this.ringCapacity = requirePositive(ringCapacity, "ringCapacity");
+            return this;
+        }
+
+        /**
+         * Получатель ID завершенных процессов. Вызывается в потоке, выдавшем финальное уведомление:
+         * у {@link Engine#SHARDED} и {@link Engine#ACTOR} это поток раздела или актора.
+         * Например, {@code sequences::release}, чтобы свой {@link SequenceGenerator} забывал счетчики
+         * завершенных процессов
+         */
+        public Builder onProcessFinalized(LongConsumer finalizedListener) {
+            this.finalizedListener = Objects.requireNonNull(finalizedListener, "finalizedListener");
+            return this;
+        }
+
+        public AccumulatorFactory build() {
+            return new AccumulatorFactory(engine, new AccumulatorConfig(expectedProcesses, initialCapacity,
+                    evictionPolicy, metrics, shards, ringCapacity, finalizedListener));
+        }
+
+        private static int requireNonNegative(int value, String name) {
+            if (value < 0) {
+                throw new IllegalArgumentException(name + " must not be negative: " + value);
+            }
+            return value;
+        }
+
+        private static int requirePositive(int value, String name) {
+            if (value <= 0) {
+                throw new IllegalArgumentException(name + " must be positive: " + value);
+            }
+            return value;
+        }
     }
 }
@@ -0,0 +1,70 @@
+package com.vk.dwzkf.test;
+
+/**
+ * Получатель метрик аккумулятора.
+ * <p>
+ * Методы вызываются синхронно на горячем пути, в том числе из нескольких потоков одновременно,
+ * поэтому реализация должна быть потокобезопасной и не блокировать. {@link #NOOP} ничего не делает,
+ * и с ним аккумулятор не вызывает получателя вовсе и не замеряет время
+ * @since 16.10.2026
+ */
+public interface AccumulatorMetrics {
+    AccumulatorMetrics NOOP = new AccumulatorMetrics() {
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+    };
+
+    /**
+     * @return {@code false} - метрики не собираются, остальные методы не вызываются
+     */
+    default boolean isEnabled() {
+        return true;
+    }
+
+    /**
+     * Уведомление принято в буфер процесса
+     */
+    default void accepted() {
+    }
+
+    /**
+     * Уведомление с таким {@code seqNo} уже принималось
+     */
+    default void duplicate() {
+    }
+
+    /**
+     * Уведомление пришло после завершения процесса
+     */
+    default void rejectedAfterFinal() {
+    }
+
+    /**
+     * Состояние уведомления недостижимо из текущего состояния процесса
+     */
+    default void rejectedStale() {
+    }
+
+    /**
+     * Пришло первое уведомление процесса
+     */
+    default void processOpened() {
+    }
+
+    /**
+     * Процесс выдал финальное уведомление
+     */
+    default void processFinalized() {
+    }
+
+    /**
+     * Выполнен {@code drain} по процессу
+     * @param emitted      количество выданных уведомлений
+     * @param pending      количество уведомлений, оставшихся в буфере процесса
+     * @param latencyNanos длительность {@code drain}, включая вызовы {@code sink}
+     */
+    default void drained(int emitted, int pending, long latencyNanos) {
+    }
+}
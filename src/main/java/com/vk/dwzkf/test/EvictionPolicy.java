@@ -0,0 +1,16 @@
+package com.vk.dwzkf.test;
+
+/**
+ * Что аккумулятор делает с процессом после выдачи финального уведомления
+ * @since 16.10.2026
+ */
+public enum EvictionPolicy {
+    /**
+     * Буфер процесса удаляется, остается только компактная отметка о завершении
+     */
+    TOMBSTONE,
+    /**
+     * Буфер процесса остается в таблице до конца жизни аккумулятора
+     */
+    RETAIN
+}
@@ -0,0 +1,22 @@
+package com.vk.dwzkf.test;
+
+/**
+ * Источник порядковых номеров уведомлений.
+ * <p>
+ * Реализации должны быть потокобезопасны: уведомления создаются из многих потоков
+ * @since 16.10.2026
+ */
+public interface SequenceGenerator {
+    /**
+     * @param processId ID процесса
+     * @return следующий порядковый номер уведомления процесса, начиная с 1
+     */
+    int next(Long processId);
+
+    /**
+     * Забывает счетчик процесса, например, после его финального уведомления.
+     * Следующий вызов {@link #next(Long)} для этого процесса начнет нумерацию заново
+     * @param processId ID процесса
+     */
+    void release(Long processId);
+}
@@ -1,38 +1,88 @@
 package com.vk.dwzkf.test;
 
-import lombok.Getter;
+import com.vk.dwzkf.test.impl.ConcurrentSequenceGenerator;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.Objects;
 
 /**
  * Представляет собой объект уведомления
+ * <p>
+ * Поля хранятся примитивами. Методы {@code get*} возвращают обертки для совместимости,
+ * на горячем пути используйте {@link #processIdValue()}, {@link #seqNoValue()} и {@link #stateOrdinal()}
  * @author Roman Shageev
  * @since 12.08.2024
  */
-@Getter
 public class StateObject {
-    private static final Map<Long, AtomicInteger> sequenceGenerator = new HashMap<>();
+    private static final State[] STATES = State.values();
+    private static volatile SequenceGenerator sequenceGenerator = new ConcurrentSequenceGenerator();
 
     /**
      * ID процесса
      */
-    private final Long processId;
+    private final long processId;
     /**
-     * Статус
+     * Статус, {@link State#ordinal()}
      */
-    private final State state;
+    private final byte state;
     /**
      * Порядковый номер уведомления
      */
-    private final Integer seqNo;
+    private final int seqNo;
 
 
     public StateObject(Long processId, State state) {
+        this(processId, state, sequenceGenerator);
+    }
+
+    /**
+     * @param sequenceGenerator источник порядкового номера уведомления
+     */
+    public StateObject(Long processId, State state, SequenceGenerator sequenceGenerator) {
+        this(processId, state, sequenceGenerator.next(processId));
+    }
+
+    /**
+     * Уведомление с уже известным порядковым номером, например, восстановленное из сообщения системы X
+     * @param seqNo порядковый номер, начиная с 1
+     * @throws IllegalArgumentException если {@code seqNo} меньше 1
+     */
+    public StateObject(long processId, State state, int seqNo) {
+        if (seqNo < 1) {
+            throw new IllegalArgumentException("seqNo must be positive: " + seqNo);
+        }
         this.processId = processId;
-        this.state = state;
-        this.seqNo = sequenceGenerator.computeIfAbsent(processId, ctx -> new AtomicInteger())
-                .incrementAndGet();
+        this.state = (byte) state.ordinal();
+        this.seqNo = seqNo;
+    }
+
+    /**
+     * Заменяет источник порядковых номеров, которым пользуется {@link #StateObject(Long, State)}
+     */
+    public static void setSequenceGenerator(SequenceGenerator sequenceGenerator) {
+        StateObject.sequenceGenerator = Objects.requireNonNull(sequenceGenerator);
+    }
+
+    public Long getProcessId() {
+        return processId;
+    }
+
+    public State getState() {
+        return STATES[state];
+    }
+
+    public Integer getSeqNo() {
+        return seqNo;
+    }
+
+    public long processIdValue() {
+        return processId;
+    }
+
+    public int seqNoValue() {
+        return seqNo;
+    }
+
+    public int stateOrdinal() {
+        return state;
     }
 }
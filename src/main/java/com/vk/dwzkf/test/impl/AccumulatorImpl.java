@@ -1,28 +1,167 @@
 package com.vk.dwzkf.test.impl;
 
 import com.vk.dwzkf.test.Accumulator;
+import com.vk.dwzkf.test.AccumulatorConfig;
+import com.vk.dwzkf.test.EvictionPolicy;
 import com.vk.dwzkf.test.StateObject;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.function.LongFunction;
 
 /**
+ * Однопоточный аккумулятор.
+ * <p>
+ * Буфер процесса удаляется сразу после выдачи финального уведомления, о процессе остается только отметка
+ * в {@link TombstoneSet}, по которой отбрасываются опоздавшие уведомления.
+ * При {@link EvictionPolicy#RETAIN} буфер остается в таблице и сам отбрасывает опоздавшие уведомления
  * @author Roman Shageev
  * @since 12.08.2024
  */
-public class AccumulatorImpl implements Accumulator {
+public class AccumulatorImpl implements Accumulator, DirtyTracking {
+    private final LongObjectMap<ProcessBuffer> processes;
+    private final Queue<ProcessBuffer> dirty = new ArrayDeque<>();
+    private final TombstoneSet finalized = new TombstoneSet();
+    private final LongFunction<ProcessBuffer> bufferFactory = this::newBuffer;
+    private final int initialCapacity;
+    private final boolean evict;
+    private final MetricsRecorder metrics;
+    private final LongConsumer finalizedListener;
+    private LongConsumer dirtyListener = NONE;
+
+    public AccumulatorImpl() {
+        this(AccumulatorConfig.DEFAULT);
+    }
+
+    public AccumulatorImpl(AccumulatorConfig config) {
+        this(config, config.getExpectedProcesses());
+    }
+
+    /**
+     * @param expectedProcesses заменяет {@link AccumulatorConfig#getExpectedProcesses()}
+     */
+    AccumulatorImpl(AccumulatorConfig config, int expectedProcesses) {
+        processes = new LongObjectMap<>(expectedProcesses);
+        initialCapacity = config.getInitialCapacity();
+        evict = config.getEvictionPolicy() == EvictionPolicy.TOMBSTONE;
+        metrics = new MetricsRecorder(config.getMetrics());
+        finalizedListener = config.getFinalizedListener();
+    }
+
+    @Override
+    public void setDirtyListener(LongConsumer listener) {
+        dirtyListener = listener;
+    }
+
     @Override
     public void accept(StateObject stateObject) {
-        //your code here
+        ProcessBuffer buffer = processes.computeIfAbsent(stateObject.processIdValue(), bufferFactory);
+        if (buffer == null) {
+            metrics.rejectedAfterFinal(1);
+        } else if (metrics.accepted(buffer.accept(stateObject)) == ProcessBuffer.AcceptResult.ACCEPTED) {
+            markDirty(buffer);
+        }
     }
 
     @Override
     public void acceptAll(List<StateObject> stateObjects) {
-        stateObjects.forEach(this::accept);
+        ProcessBuffer buffer = null;
+        long processId = 0;
+        boolean first = true;
+        boolean accepted = false;
+        for (StateObject stateObject : stateObjects) {
+            // подряд идущие уведомления одного процесса не требуют поиска в таблице
+            if (first || stateObject.processIdValue() != processId) {
+                if (accepted) {
+                    markDirty(buffer);
+                }
+                processId = stateObject.processIdValue();
+                buffer = processes.computeIfAbsent(processId, bufferFactory);
+                first = false;
+                accepted = false;
+            }
+            if (buffer != null) {
+                accepted |= metrics.accepted(buffer.accept(stateObject)) == ProcessBuffer.AcceptResult.ACCEPTED;
+            } else {
+                metrics.rejectedAfterFinal(1);
+            }
+        }
+        if (accepted) {
+            markDirty(buffer);
+        }
     }
 
     @Override
     public List<StateObject> drain(Long processId) {
-        //your code here
-        return null;
+        List<StateObject> result = new ArrayList<>();
+        drain(processId, result::add);
+        return result;
+    }
+
+    @Override
+    public void drain(long processId, Consumer<? super StateObject> sink) {
+        ProcessBuffer buffer = processes.get(processId);
+        if (buffer != null) {
+            drain(buffer, sink);
+        }
+    }
+
+    @Override
+    public Map<Long, List<StateObject>> drainReady() {
+        Map<Long, List<StateObject>> result = new LinkedHashMap<>();
+        ProcessBuffer buffer;
+        while ((buffer = dirty.poll()) != null) {
+            buffer.clearDirty();
+            List<StateObject> stateObjects = new ArrayList<>();
+            drain(buffer, stateObjects::add);
+            if (!stateObjects.isEmpty()) {
+                result.put(buffer.getProcessId(), stateObjects);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return новый буфер или {@code null}, если процесс уже завершен
+     */
+    private ProcessBuffer newBuffer(long processId) {
+        if (finalized.contains(processId)) {
+            return null;
+        }
+        metrics.processOpened();
+        return new ProcessBuffer(processId, initialCapacity);
+    }
+
+    private void drain(ProcessBuffer buffer, Consumer<? super StateObject> sink) {
+        boolean wasFinalized = buffer.isFinalized();
+        long start = metrics.drainStarted();
+        metrics.drained(start, buffer.drain(sink), buffer);
+        if (!wasFinalized && buffer.isFinalized()) {
+            metrics.processFinalized();
+            finalizedListener.accept(buffer.getProcessId());
+            if (evict) {
+                finalized.add(buffer.getProcessId());
+                processes.remove(buffer.getProcessId());
+            }
+        }
+    }
+
+    /**
+     * Вызывается только после принятого уведомления
+     */
+    private void markDirty(ProcessBuffer buffer) {
+        if (!buffer.isDrainable()) {
+            return;
+        }
+        if (buffer.markDirty()) {
+            dirty.add(buffer);
+        }
+        dirtyListener.accept(buffer.getProcessId());
     }
 }
@@ -0,0 +1,242 @@
+package com.vk.dwzkf.test.impl;
+
+import com.vk.dwzkf.test.Accumulator;
+import com.vk.dwzkf.test.StateObject;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+
+/**
+ * Аккумулятор-издатель согласованных списков уведомлений.
+ * <p>
+ * Каждый элемент потока - непустой результат {@code drain} по одному процессу.
+ * Процесс, по которому пришли уведомления, встает в очередь готовых, но {@code drain} по нему выполняется,
+ * только когда подписчик запросил очередной элемент. Пока спроса нет, уведомления остаются в буферах
+ * {@code delegate}, а очередь готовых ограничена количеством процессов, поэтому медленный подписчик
+ * замедляет {@code drain}, а не копит готовые списки.
+ * <p>
+ * Подписчик один: повторная подписка получает {@link IllegalStateException} в {@code onError}.
+ * Сигналы подписчику подаются последовательно из задач на {@code executor}, там же выполняется {@code drain},
+ * поэтому {@code delegate} должен быть потокобезопасным, если {@code executor} не выполняет задачи в вызывающем потоке.
+ * {@link #close()} завершает поток, когда все уже готовые процессы выданы
+ * @since 16.10.2026
+ */
+public class AccumulatorPublisher implements Accumulator, Flow.Publisher<List<StateObject>> {
+    private static final Object QUEUED = new Object();
+    private static final Flow.Subscription REJECTED = new Flow.Subscription() {
+        @Override
+        public void request(long n) {
+        }
+
+        @Override
+        public void cancel() {
+        }
+    };
+
+    private final Accumulator delegate;
+    private final Executor executor;
+    /**
+     * Процессы, по которым с прошлого {@code drain} пришли уведомления, в порядке поступления
+     */
+    private final Queue<Long> ready = new ConcurrentLinkedQueue<>();
+    /**
+     * Процессы, уже стоящие в {@link #ready}
+     */
+    private final ConcurrentLongObjectMap<Object> queued = new ConcurrentLongObjectMap<>();
+    private final LongFunction<Object> enqueue = this::enqueue;
+    private final AtomicReference<Subscription> subscription = new AtomicReference<>();
+    private volatile boolean closed;
+
+    public AccumulatorPublisher(Accumulator delegate) {
+        this(delegate, ForkJoinPool.commonPool());
+    }
+
+    public AccumulatorPublisher(Accumulator delegate, Executor executor) {
+        this.delegate = delegate;
+        this.executor = executor;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super List<StateObject>> subscriber) {
+        Subscription created = new Subscription(subscriber);
+        if (!subscription.compareAndSet(null, created)) {
+            subscriber.onSubscribe(REJECTED);
+            subscriber.onError(new IllegalStateException("AccumulatorPublisher supports a single subscriber"));
+            return;
+        }
+        subscriber.onSubscribe(created);
+        // готовые до подписки процессы и close() до подписки
+        created.signal();
+    }
+
+    @Override
+    public void accept(StateObject stateObject) {
+        delegate.accept(stateObject);
+        markReady(stateObject.processIdValue());
+        signal();
+    }
+
+    @Override
+    public void acceptAll(List<StateObject> stateObjects) {
+        delegate.acceptAll(stateObjects);
+        long processId = 0;
+        boolean first = true;
+        for (StateObject stateObject : stateObjects) {
+            if (first || stateObject.processIdValue() != processId) {
+                processId = stateObject.processIdValue();
+                markReady(processId);
+                first = false;
+            }
+        }
+        signal();
+    }
+
+    /**
+     * Уведомления, выданные в обход подписчика, ему уже не достанутся
+     */
+    @Override
+    public List<StateObject> drain(Long processId) {
+        return delegate.drain(processId);
+    }
+
+    @Override
+    public void drain(long processId, Consumer<? super StateObject> sink) {
+        delegate.drain(processId, sink);
+    }
+
+    @Override
+    public Map<Long, List<StateObject>> drainReady() {
+        return delegate.drainReady();
+    }
+
+    /**
+     * Новые уведомления больше не ставят процессы в очередь.
+     * Подписчик получит {@code onComplete}, когда запросит и получит все, что уже готово
+     */
+    @Override
+    public void close() {
+        closed = true;
+        signal();
+    }
+
+    private void markReady(long processId) {
+        if (!closed && queued.get(processId) == null) {
+            queued.computeIfAbsent(processId, enqueue);
+        }
+    }
+
+    /**
+     * Вызывается под блокировкой сегмента {@link #queued}, поэтому процесс попадает в очередь один раз
+     */
+    private Object enqueue(long processId) {
+        ready.add(processId);
+        return QUEUED;
+    }
+
+    private void signal() {
+        Subscription current = subscription.get();
+        if (current != null) {
+            current.signal();
+        }
+    }
+
+    private final class Subscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super List<StateObject>> subscriber;
+        private final AtomicLong requested = new AtomicLong();
+        /**
+         * Количество необработанных сигналов, цикл выдачи выполняется только при переходе из нуля
+         */
+        private final AtomicInteger wip = new AtomicInteger();
+        private volatile boolean cancelled;
+        private volatile Throwable error;
+        private boolean done;
+
+        private Subscription(Flow.Subscriber<? super List<StateObject>> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                error = new IllegalArgumentException("non-positive request: " + n);
+            } else {
+                requested.getAndUpdate(current -> current + n < 0 ? Long.MAX_VALUE : current + n);
+            }
+            signal();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+
+        private void signal() {
+            if (wip.getAndIncrement() == 0) {
+                executor.execute(this::emit);
+            }
+        }
+
+        private void emit() {
+            int missed = 1;
+            do {
+                if (!done && !cancelled) {
+                    emitReady();
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void emitReady() {
+            Throwable failure = error;
+            if (failure != null) {
+                terminate(failure);
+                return;
+            }
+            long demand = requested.get();
+            long emitted = 0;
+            while (emitted != demand && !cancelled) {
+                Long processId = ready.poll();
+                if (processId == null) {
+                    break;
+                }
+                // процесс снимается с учета до drain: уведомления, пришедшие во время drain, поставят его снова
+                queued.remove(processId);
+                // ошибка delegate, как и ошибка подписчика, завершает поток: иначе выдача встала бы молча
+                try {
+                    List<StateObject> stateObjects = delegate.drain(processId);
+                    if (stateObjects.isEmpty()) {
+                        continue;
+                    }
+                    subscriber.onNext(stateObjects);
+                } catch (RuntimeException e) {
+                    terminate(e);
+                    return;
+                }
+                emitted++;
+            }
+            if (emitted != 0 && demand != Long.MAX_VALUE) {
+                requested.addAndGet(-emitted);
+            }
+            if (closed && ready.isEmpty() && !cancelled) {
+                done = true;
+                subscriber.onComplete();
+            }
+        }
+
+        private void terminate(Throwable failure) {
+            done = true;
+            cancelled = true;
+            subscriber.onError(failure);
+        }
+    }
+}
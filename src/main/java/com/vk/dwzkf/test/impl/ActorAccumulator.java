@@ -0,0 +1,359 @@
+package com.vk.dwzkf.test.impl;
+
+import com.vk.dwzkf.test.Accumulator;
+import com.vk.dwzkf.test.AccumulatorConfig;
+import com.vk.dwzkf.test.EvictionPolicy;
+import com.vk.dwzkf.test.StateObject;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.function.LongFunction;
+
+/**
+ * Аккумулятор, в котором каждый процесс - актор.
+ * <p>
+ * У актора свой почтовый ящик ({@link MpscInbox}) и свой {@link ProcessBuffer}, сообщения разбираются
+ * строго последовательно одной задачей на {@code executor}, поэтому блокировок вокруг буфера нет.
+ * {@link #accept(StateObject)} и {@link #acceptAll(List)} только кладут сообщение в ящик,
+ * {@code drain} - тоже сообщение, результат которого актор передает в {@code sink}.
+ * <p>
+ * По умолчанию задачи акторов выполняются на виртуальных потоках (поток на задачу), если они есть в JDK,
+ * иначе на {@link ForkJoinPool#commonPool()}. Завершенные процессы вытесняются в {@link TombstoneSet},
+ * если не выбрана {@link EvictionPolicy#RETAIN}.
+ * <p>
+ * После {@link #close()} сообщения не принимаются. Если исполнитель отклонил задачу актора,
+ * вызов завершается с {@link RejectedExecutionException}, а ожидающие {@code drain} актора - с ошибкой
+ * @since 16.10.2026
+ */
+public class ActorAccumulator implements Accumulator, DirtyTracking {
+    private final ConcurrentLongObjectMap<ProcessActor> actors;
+    private final Queue<ProcessActor> dirty = new ConcurrentLinkedQueue<>();
+    private final TombstoneSet finalized = new TombstoneSet();
+    private final LongFunction<ProcessActor> actorFactory = this::newActor;
+    private final Executor executor;
+    /**
+     * Исполнитель, созданный самим аккумулятором и закрываемый в {@link #close()}
+     */
+    private final ExecutorService ownedExecutor;
+    private final int initialCapacity;
+    private final boolean evict;
+    private final MetricsRecorder metrics;
+    private final LongConsumer finalizedListener;
+    private volatile boolean closed;
+    private LongConsumer dirtyListener = NONE;
+
+    public ActorAccumulator() {
+        this(AccumulatorConfig.DEFAULT);
+    }
+
+    public ActorAccumulator(AccumulatorConfig config) {
+        this(config, null, newVirtualThreadExecutor());
+    }
+
+    public ActorAccumulator(AccumulatorConfig config, Executor executor) {
+        this(config, executor, null);
+    }
+
+    private ActorAccumulator(AccumulatorConfig config, Executor executor, ExecutorService ownedExecutor) {
+        this.actors = new ConcurrentLongObjectMap<>(config.getExpectedProcesses());
+        this.initialCapacity = config.getInitialCapacity();
+        this.evict = config.getEvictionPolicy() == EvictionPolicy.TOMBSTONE;
+        this.metrics = new MetricsRecorder(config.getMetrics());
+        this.finalizedListener = config.getFinalizedListener();
+        this.ownedExecutor = ownedExecutor;
+        if (executor != null) {
+            this.executor = executor;
+        } else {
+            this.executor = ownedExecutor != null ? ownedExecutor : ForkJoinPool.commonPool();
+        }
+    }
+
+    /**
+     * Получатель вызывается в потоке актора, когда он принял уведомление
+     */
+    @Override
+    public void setDirtyListener(LongConsumer listener) {
+        dirtyListener = listener;
+    }
+
+    @Override
+    public void accept(StateObject stateObject) {
+        ProcessActor actor = actors.computeIfAbsent(stateObject.processIdValue(), actorFactory);
+        if (actor != null) {
+            actor.send(stateObject);
+            markDirty(actor);
+        } else {
+            metrics.rejectedAfterFinal(1);
+        }
+    }
+
+    /**
+     * Уведомления сначала группируются по процессам, затем каждая группа уходит актору одним сообщением
+     */
+    @Override
+    public void acceptAll(List<StateObject> stateObjects) {
+        for (List<StateObject> group : ProcessBatches.groupByProcess(stateObjects)) {
+            ProcessActor actor = actors.computeIfAbsent(group.get(0).processIdValue(), actorFactory);
+            if (actor != null) {
+                actor.send(group);
+                markDirty(actor);
+            } else {
+                metrics.rejectedAfterFinal(group.size());
+            }
+        }
+    }
+
+    @Override
+    public List<StateObject> drain(Long processId) {
+        List<StateObject> result = new ArrayList<>();
+        drain(processId, result::add);
+        return result;
+    }
+
+    /**
+     * Ждет, пока актор обработает все отправленные до вызова сообщения и выдаст уведомления.
+     * {@code sink} вызывается в потоке актора
+     */
+    @Override
+    public void drain(long processId, Consumer<? super StateObject> sink) {
+        await(drainAsync(processId, sink));
+    }
+
+    /**
+     * Асинхронный {@code drain}: актор передаст уведомления в {@code sink} в своем потоке,
+     * после чего результат завершится
+     */
+    public CompletableFuture<Void> drainAsync(long processId, Consumer<? super StateObject> sink) {
+        ProcessActor actor = actors.get(processId);
+        if (actor == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        DrainRequest request = new DrainRequest(sink);
+        try {
+            actor.send(request);
+        } catch (RuntimeException e) {
+            request.completion.completeExceptionally(e);
+        }
+        return request.completion;
+    }
+
+    /**
+     * Готовые процессы выполняют {@code drain} параллельно, каждый на своем акторе
+     */
+    @Override
+    public Map<Long, List<StateObject>> drainReady() {
+        List<ProcessActor> drainedActors = new ArrayList<>();
+        List<List<StateObject>> results = new ArrayList<>();
+        List<CompletableFuture<Void>> completions = new ArrayList<>();
+        ProcessActor actor;
+        while ((actor = dirty.poll()) != null) {
+            // флаг снимается до запроса, чтобы уведомления, пришедшие после него, снова пометили процесс
+            actor.dirty.set(false);
+            List<StateObject> stateObjects = new ArrayList<>();
+            DrainRequest request = new DrainRequest(stateObjects::add);
+            actor.send(request);
+            drainedActors.add(actor);
+            results.add(stateObjects);
+            completions.add(request.completion);
+        }
+        Map<Long, List<StateObject>> result = new LinkedHashMap<>();
+        for (int i = 0; i < drainedActors.size(); i++) {
+            await(completions.get(i));
+            if (!results.get(i).isEmpty()) {
+                result.merge(drainedActors.get(i).buffer.getProcessId(), results.get(i), (first, second) -> {
+                    first.addAll(second);
+                    return first;
+                });
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Перестает принимать сообщения и закрывает собственный исполнитель, если он был создан аккумулятором.
+     * Уже отправленные сообщения будут разобраны
+     */
+    @Override
+    public void close() {
+        closed = true;
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdown();
+        }
+    }
+
+    /**
+     * Вызывается под блокировкой сегмента таблицы процессов
+     * @return новый актор или {@code null}, если процесс уже завершен
+     */
+    private ProcessActor newActor(long processId) {
+        if (finalized.contains(processId)) {
+            return null;
+        }
+        metrics.processOpened();
+        return new ProcessActor(processId, initialCapacity);
+    }
+
+    private void markDirty(ProcessActor actor) {
+        if (!actor.dirty.get() && actor.dirty.compareAndSet(false, true)) {
+            dirty.add(actor);
+        }
+    }
+
+    private static void await(CompletableFuture<Void> completion) {
+        try {
+            completion.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * @return исполнитель "виртуальный поток на задачу" или {@code null}, если JDK их не поддерживает
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    private static final class DrainRequest {
+        private final Consumer<? super StateObject> sink;
+        private final CompletableFuture<Void> completion = new CompletableFuture<>();
+
+        private DrainRequest(Consumer<? super StateObject> sink) {
+            this.sink = sink;
+        }
+    }
+
+    private final class ProcessActor implements Runnable {
+        private final MpscInbox<Object> mailbox = new MpscInbox<>();
+        /**
+         * Количество отправленных, но еще не учтенных сообщений, задача запускается только при переходе из нуля
+         */
+        private final AtomicInteger wip = new AtomicInteger();
+        private final AtomicBoolean dirty = new AtomicBoolean();
+        private final ProcessBuffer buffer;
+        private final Consumer<Object> handler = this::handle;
+
+        private ProcessActor(long processId, int initialCapacity) {
+            buffer = new ProcessBuffer(processId, initialCapacity);
+        }
+
+        private void send(Object message) {
+            if (closed) {
+                throw new IllegalStateException("ActorAccumulator is closed");
+            }
+            mailbox.offer(message);
+            if (wip.getAndIncrement() == 0) {
+                try {
+                    executor.execute(this);
+                } catch (RejectedExecutionException e) {
+                    abandon(e);
+                    throw e;
+                }
+            }
+        }
+
+        /**
+         * Задача актора не запущена: почтовый ящик разбирается вместо нее, запросы {@code drain} завершаются
+         * с ошибкой, а {@code wip} возвращается к нулю, чтобы следующая отправка снова попробовала запуск
+         */
+        private void abandon(RuntimeException error) {
+            int missed = 1;
+            do {
+                mailbox.drain(message -> {
+                    if (message instanceof DrainRequest) {
+                        ((DrainRequest) message).completion.completeExceptionally(error);
+                    }
+                });
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        @Override
+        public void run() {
+            int missed = 1;
+            do {
+                mailbox.drain(handler);
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        /**
+         * Ошибка одного сообщения не останавливает актора: запрос {@code drain} завершается с ошибкой,
+         * ошибка приема уведомлений передается обработчику непойманных исключений потока
+         */
+        @SuppressWarnings("unchecked")
+        private void handle(Object message) {
+            try {
+                if (message instanceof StateObject) {
+                    accepted(metrics.accepted(buffer.accept((StateObject) message))
+                            == ProcessBuffer.AcceptResult.ACCEPTED);
+                } else if (message instanceof List) {
+                    boolean accepted = false;
+                    for (StateObject stateObject : (List<StateObject>) message) {
+                        accepted |= metrics.accepted(buffer.accept(stateObject)) == ProcessBuffer.AcceptResult.ACCEPTED;
+                    }
+                    accepted(accepted);
+                } else {
+                    drain((DrainRequest) message);
+                }
+            } catch (RuntimeException e) {
+                if (message instanceof DrainRequest) {
+                    ((DrainRequest) message).completion.completeExceptionally(e);
+                } else {
+                    Thread thread = Thread.currentThread();
+                    thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+                }
+            }
+        }
+
+        private void accepted(boolean accepted) {
+            if (accepted && buffer.isDrainable()) {
+                dirtyListener.accept(buffer.getProcessId());
+            }
+        }
+
+        private void drain(DrainRequest request) {
+            long start = metrics.drainStarted();
+            boolean wasFinalized = buffer.isFinalized();
+            try {
+                metrics.drained(start, buffer.drain(request.sink), buffer);
+            } catch (RuntimeException e) {
+                request.completion.completeExceptionally(e);
+                return;
+            } finally {
+                if (!wasFinalized && buffer.isFinalized()) {
+                    metrics.processFinalized();
+                    finalizedListener.accept(buffer.getProcessId());
+                    if (evict) {
+                        // отметка ставится до удаления: новый актор для процесса создается только если отметки нет
+                        finalized.add(buffer.getProcessId());
+                        actors.remove(buffer.getProcessId());
+                    }
+                }
+            }
+            request.completion.complete(null);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.vk.dwzkf.test.impl;
+
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.LongFunction;
+
+/**
+ * Потокобезопасный вариант {@link LongObjectMap}.
+ * <p>
+ * Таблица разбита на сегменты по старшим битам хеша ключа, у каждого сегмента своя {@link StampedLock}.
+ * Чтение выполняется под оптимистичной блокировкой и в обычном случае ничего не пишет в общую память,
+ * запись блокирует только свой сегмент
+ * @since 16.10.2026
+ */
+class ConcurrentLongObjectMap<V> {
+    private static final int DEFAULT_SEGMENTS = 64;
+
+    private final Segment<V>[] segments;
+    private final int segmentShift;
+
+    ConcurrentLongObjectMap() {
+        this(DEFAULT_SEGMENTS * 8);
+    }
+
+    ConcurrentLongObjectMap(int expectedSize) {
+        this(expectedSize, DEFAULT_SEGMENTS);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    ConcurrentLongObjectMap(int expectedSize, int concurrencyLevel) {
+        int segmentCount = concurrencyLevel <= 1 ? 1 : Integer.highestOneBit(concurrencyLevel - 1) << 1;
+        segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment<>(expectedSize / segmentCount);
+        }
+        segmentShift = 64 - Integer.numberOfTrailingZeros(segmentCount);
+    }
+
+    V get(long key) {
+        Segment<V> segment = segment(key);
+        long stamp = segment.lock.tryOptimisticRead();
+        if (stamp != 0) {
+            V value = segment.get(key);
+            if (segment.lock.validate(stamp)) {
+                return value;
+            }
+        }
+        stamp = segment.lock.readLock();
+        try {
+            return segment.get(key);
+        } finally {
+            segment.lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Атомарный аналог {@link LongObjectMap#computeIfAbsent(long, LongFunction)}:
+     * {@code factory} вызывается под блокировкой сегмента и не должна обращаться к этой же таблице
+     */
+    V computeIfAbsent(long key, LongFunction<? extends V> factory) {
+        V value = get(key);
+        if (value != null) {
+            return value;
+        }
+        Segment<V> segment = segment(key);
+        long stamp = segment.lock.writeLock();
+        try {
+            return segment.computeIfAbsent(key, factory);
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    V remove(long key) {
+        Segment<V> segment = segment(key);
+        long stamp = segment.lock.writeLock();
+        try {
+            return segment.remove(key);
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Удаляет ключ, только если он все еще связан именно с {@code value}
+     * @return {@code true} если ключ удален
+     */
+    boolean remove(long key, V value) {
+        Segment<V> segment = segment(key);
+        long stamp = segment.lock.writeLock();
+        try {
+            if (segment.get(key) != value) {
+                return false;
+            }
+            segment.remove(key);
+            return true;
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * @return сумма размеров сегментов, не атомарна относительно одновременных изменений
+     */
+    int size() {
+        int size = 0;
+        for (Segment<V> segment : segments) {
+            long stamp = segment.lock.readLock();
+            try {
+                size += segment.size();
+            } finally {
+                segment.lock.unlockRead(stamp);
+            }
+        }
+        return size;
+    }
+
+    private Segment<V> segment(long key) {
+        return segments[segmentShift == 64 ? 0 : (int) (LongObjectMap.mix(key) >>> segmentShift)];
+    }
+
+    private static final class Segment<V> extends LongObjectMap<V> {
+        private final StampedLock lock = new StampedLock();
+
+        private Segment(int expectedSize) {
+            super(expectedSize);
+        }
+    }
+}
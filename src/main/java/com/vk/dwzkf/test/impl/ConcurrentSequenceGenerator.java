@@ -0,0 +1,133 @@
+package com.vk.dwzkf.test.impl;
+
+import com.vk.dwzkf.test.SequenceGenerator;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Потокобезопасный {@link SequenceGenerator}, который не держит счетчики вечно.
+ * <p>
+ * Счетчик удаляется при {@link #release(Long)} (аккумулятор вызовет его для завершенных процессов,
+ * если передать {@code generator::release} в {@link com.vk.dwzkf.test.AccumulatorFactory.Builder#onProcessFinalized})
+ * или если по процессу не было новых номеров дольше {@code maxIdle}.
+ * Просроченные счетчики вычищаются попутно в {@link #next(Long)} не чаще раза в половину {@code maxIdle}.
+ * <p>
+ * Вытеснение по простою - страховка для процессов, которые так и не завершились.
+ * После него нумерация процесса начинается с 1, и аккумулятор отбросит новые уведомления
+ * живого процесса как повторы, поэтому {@code maxIdle} должен быть больше самой долгой паузы
+ * между уведомлениями одного процесса
+ * @since 16.10.2026
+ */
+public class ConcurrentSequenceGenerator implements SequenceGenerator {
+    public static final Duration DEFAULT_MAX_IDLE = Duration.ofHours(24);
+
+    private final ConcurrentMap<Long, Sequence> sequences = new ConcurrentHashMap<>();
+    private final long maxIdleNanos;
+    private final LongSupplier nanoClock;
+    private final AtomicLong nextSweep;
+
+    public ConcurrentSequenceGenerator() {
+        this(DEFAULT_MAX_IDLE);
+    }
+
+    /**
+     * @param maxIdle простой, после которого счетчик процесса удаляется; должен быть больше самой долгой паузы
+     *                между уведомлениями одного процесса
+     */
+    public ConcurrentSequenceGenerator(Duration maxIdle) {
+        this(maxIdle, System::nanoTime);
+    }
+
+    ConcurrentSequenceGenerator(Duration maxIdle, LongSupplier nanoClock) {
+        if (maxIdle.isNegative() || maxIdle.isZero()) {
+            throw new IllegalArgumentException("maxIdle must be positive: " + maxIdle);
+        }
+        this.maxIdleNanos = maxIdle.toNanos();
+        this.nanoClock = nanoClock;
+        this.nextSweep = new AtomicLong(nanoClock.getAsLong() + sweepInterval());
+    }
+
+    @Override
+    public int next(Long processId) {
+        long now = nanoClock.getAsLong();
+        sweepIfDue(now);
+        while (true) {
+            Sequence sequence = sequences.get(processId);
+            if (sequence == null) {
+                sequence = sequences.computeIfAbsent(processId, id -> new Sequence());
+            }
+            int seqNo = sequence.next(now);
+            if (seqNo != Sequence.RELEASED) {
+                return seqNo;
+            }
+            sequences.remove(processId, sequence);
+        }
+    }
+
+    @Override
+    public void release(Long processId) {
+        Sequence sequence = sequences.get(processId);
+        if (sequence != null) {
+            sequence.set(Sequence.RELEASED);
+            sequences.remove(processId, sequence);
+        }
+    }
+
+    /**
+     * @return количество процессов, для которых сейчас хранится счетчик
+     */
+    public int size() {
+        return sequences.size();
+    }
+
+    private void sweepIfDue(long now) {
+        long due = nextSweep.get();
+        if (now - due < 0 || !nextSweep.compareAndSet(due, now + sweepInterval())) {
+            return;
+        }
+        long idleSince = now - maxIdleNanos;
+        sequences.forEach((processId, sequence) -> {
+            if (sequence.releaseIfIdle(idleSince)) {
+                sequences.remove(processId, sequence);
+            }
+        });
+    }
+
+    private long sweepInterval() {
+        return Math.max(1, maxIdleNanos >>> 1);
+    }
+
+    /**
+     * Счетчик процесса. Значение {@link #RELEASED} означает, что счетчик удален и им больше нельзя пользоваться
+     */
+    private static final class Sequence extends AtomicInteger {
+        private static final long serialVersionUID = 1L;
+        private static final int RELEASED = -1;
+
+        private volatile long lastUsed;
+
+        private int next(long now) {
+            // время пишется до CAS: очистка, увидевшая старое время, проиграет CAS и счетчик не потеряет номер
+            lastUsed = now;
+            while (true) {
+                int current = get();
+                if (current == RELEASED) {
+                    return RELEASED;
+                }
+                if (compareAndSet(current, current + 1)) {
+                    return current + 1;
+                }
+            }
+        }
+
+        private boolean releaseIfIdle(long idleSince) {
+            int current = get();
+            return current != RELEASED && lastUsed - idleSince < 0 && compareAndSet(current, RELEASED);
+        }
+    }
+}
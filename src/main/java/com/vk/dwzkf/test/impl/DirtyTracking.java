@@ -0,0 +1,23 @@
+package com.vk.dwzkf.test.impl;
+
+import java.util.function.LongConsumer;
+
+/**
+ * Аккумулятор, который сообщает о процессах, ставших готовыми к {@code drain}.
+ * <p>
+ * Получатель вызывается каждый раз, когда принятое уведомление оставило процесс с тем, что можно выдать,
+ * в том числе повторно до {@code drain}. Отклоненные уведомления (повторы, устаревшие, после финала)
+ * получателя не вызывают, насколько реализация может это определить в момент приема.
+ * Вызов может прийти из любого потока аккумулятора, получатель должен быть потокобезопасным и быстрым
+ * @since 16.10.2026
+ */
+interface DirtyTracking {
+    LongConsumer NONE = processId -> {
+    };
+
+    /**
+     * Задается до первого уведомления: поле читается без синхронизации, видимость обеспечивает
+     * передача самих уведомлений
+     */
+    void setDirtyListener(LongConsumer listener);
+}
@@ -0,0 +1,173 @@
+package com.vk.dwzkf.test.impl;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.function.Consumer;
+
+/**
+ * Хешированное колесо таймеров для сроков {@code drain} по процессам.
+ * <p>
+ * Колесо - кольцо из {@code 2^k} корзин, каждая корзина - двусвязный список сроков.
+ * Срок дальше одного оборота хранит число оставшихся оборотов.
+ * Постановка и отмена - O(1) из любого потока: они только кладут срок в MPSC-очередь,
+ * а раскладывает сроки по корзинам и снимает отмененные поток-владелец в {@link #advance(long, Consumer)}.
+ * Там же за один проход по корзине истекают все ее сроки
+ * @since 16.10.2026
+ */
+final class HashedTimingWheel {
+    private final long tickNanos;
+    private final long startNanos;
+    private final Timeout[] buckets;
+    private final int mask;
+    private final MpscInbox<Timeout> scheduled = new MpscInbox<>();
+    private final MpscInbox<Timeout> cancelled = new MpscInbox<>();
+    /**
+     * Последний обработанный тик, меняется только потоком-владельцем
+     */
+    private long currentTick;
+
+    /**
+     * @param tickNanos длительность тика, точность срабатывания
+     * @param wheelSize количество корзин, округляется вверх до степени двойки
+     * @param startNanos момент отсчета по {@link System#nanoTime()}
+     */
+    HashedTimingWheel(long tickNanos, int wheelSize, long startNanos) {
+        if (tickNanos <= 0) {
+            throw new IllegalArgumentException("tickNanos must be positive: " + tickNanos);
+        }
+        if (wheelSize <= 0 || wheelSize > 1 << 30) {
+            throw new IllegalArgumentException("wheelSize out of range: " + wheelSize);
+        }
+        this.tickNanos = tickNanos;
+        this.startNanos = startNanos;
+        int size = wheelSize == 1 ? 1 : Integer.highestOneBit(wheelSize - 1) << 1;
+        this.buckets = new Timeout[size];
+        this.mask = size - 1;
+    }
+
+    /**
+     * Планирует срок. Потокобезопасно
+     * @param nowNanos текущее время по {@link System#nanoTime()}
+     * @param delayNanos через сколько срок должен истечь
+     */
+    Timeout schedule(long processId, long nowNanos, long delayNanos) {
+        // округление вверх: срок не истекает раньше заказанного
+        long deadlineTick = (nowNanos - startNanos + delayNanos + tickNanos - 1) / tickNanos;
+        Timeout timeout = new Timeout(this, processId, deadlineTick);
+        scheduled.offer(timeout);
+        return timeout;
+    }
+
+    /**
+     * Прокручивает колесо до {@code nowNanos} и передает в {@code expired} истекшие сроки.
+     * Вызывается только потоком-владельцем
+     * @return количество истекших сроков
+     */
+    int advance(long nowNanos, Consumer<Timeout> expired) {
+        long targetTick = (nowNanos - startNanos) / tickNanos;
+        int count = 0;
+        while (currentTick < targetTick) {
+            currentTick++;
+            cancelled.drain(this::unlink);
+            scheduled.drain(this::place);
+            count += expire((int) (currentTick & mask), expired);
+        }
+        return count;
+    }
+
+    private void place(Timeout timeout) {
+        if (timeout.state != Timeout.PENDING) {
+            return;
+        }
+        long tick = Math.max(timeout.deadlineTick, currentTick);
+        timeout.remainingRounds = (tick - currentTick) / buckets.length;
+        int index = (int) (tick & mask);
+        timeout.bucket = index;
+        timeout.next = buckets[index];
+        if (timeout.next != null) {
+            timeout.next.prev = timeout;
+        }
+        buckets[index] = timeout;
+    }
+
+    private void unlink(Timeout timeout) {
+        if (timeout.bucket < 0) {
+            // отменен раньше, чем попал в корзину: place его пропустит
+            return;
+        }
+        if (timeout.prev != null) {
+            timeout.prev.next = timeout.next;
+        } else {
+            buckets[timeout.bucket] = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.prev = timeout.prev;
+        }
+        timeout.prev = null;
+        timeout.next = null;
+        timeout.bucket = -1;
+    }
+
+    private int expire(int index, Consumer<Timeout> expired) {
+        int count = 0;
+        Timeout timeout = buckets[index];
+        while (timeout != null) {
+            Timeout next = timeout.next;
+            if (timeout.remainingRounds > 0) {
+                timeout.remainingRounds--;
+            } else if (timeout.expire()) {
+                unlink(timeout);
+                expired.accept(timeout);
+                count++;
+            }
+            timeout = next;
+        }
+        return count;
+    }
+
+    /**
+     * Срок по одному процессу
+     */
+    static final class Timeout {
+        private static final int PENDING = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+        private static final AtomicIntegerFieldUpdater<Timeout> STATE =
+                AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+
+        private final HashedTimingWheel wheel;
+        private final long processId;
+        private final long deadlineTick;
+        private volatile int state;
+        // поля ниже принадлежат потоку-владельцу колеса
+        private long remainingRounds;
+        private int bucket = -1;
+        private Timeout prev;
+        private Timeout next;
+
+        private Timeout(HashedTimingWheel wheel, long processId, long deadlineTick) {
+            this.wheel = wheel;
+            this.processId = processId;
+            this.deadlineTick = deadlineTick;
+        }
+
+        long getProcessId() {
+            return processId;
+        }
+
+        /**
+         * Отменяет срок. Потокобезопасно
+         * @return {@code true} если срок еще не истек и не был отменен
+         */
+        boolean cancel() {
+            if (!STATE.compareAndSet(this, PENDING, CANCELLED)) {
+                return false;
+            }
+            wheel.cancelled.offer(this);
+            return true;
+        }
+
+        private boolean expire() {
+            return STATE.compareAndSet(this, PENDING, EXPIRED);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.vk.dwzkf.test.impl;
+
+import com.vk.dwzkf.test.AccumulatorMetrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Метрики аккумулятора в памяти процесса, для выгрузки в систему мониторинга.
+ * <p>
+ * Счетчики - {@link LongAdder}, поэтому запись из многих потоков не упирается в одну ячейку.
+ * Распределения хранятся в {@link Histogram} с корзинами по степеням двойки.
+ * Значения читаются без остановки записи и между собой согласованы лишь приблизительно
+ * @since 16.10.2026
+ */
+public final class InMemoryMetrics implements AccumulatorMetrics {
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder duplicates = new LongAdder();
+    private final LongAdder rejectedAfterFinal = new LongAdder();
+    private final LongAdder rejectedStale = new LongAdder();
+    private final LongAdder opened = new LongAdder();
+    private final LongAdder finalized = new LongAdder();
+    private final Histogram pendingPerProcess = new Histogram();
+    private final Histogram emittedPerDrain = new Histogram();
+    private final Histogram drainLatencyNanos = new Histogram();
+
+    @Override
+    public void accepted() {
+        accepted.increment();
+    }
+
+    @Override
+    public void duplicate() {
+        duplicates.increment();
+    }
+
+    @Override
+    public void rejectedAfterFinal() {
+        rejectedAfterFinal.increment();
+    }
+
+    @Override
+    public void rejectedStale() {
+        rejectedStale.increment();
+    }
+
+    @Override
+    public void processOpened() {
+        opened.increment();
+    }
+
+    @Override
+    public void processFinalized() {
+        finalized.increment();
+    }
+
+    @Override
+    public void drained(int emitted, int pending, long latencyNanos) {
+        emittedPerDrain.record(emitted);
+        pendingPerProcess.record(pending);
+        drainLatencyNanos.record(latencyNanos);
+    }
+
+    public long getAccepted() {
+        return accepted.sum();
+    }
+
+    public long getDuplicates() {
+        return duplicates.sum();
+    }
+
+    public long getRejectedAfterFinal() {
+        return rejectedAfterFinal.sum();
+    }
+
+    public long getRejectedStale() {
+        return rejectedStale.sum();
+    }
+
+    /**
+     * @return процессы, которые начались, но еще не выдали финальное уведомление
+     */
+    public long getOpenProcesses() {
+        return opened.sum() - finalized.sum();
+    }
+
+    public long getFinalizedProcesses() {
+        return finalized.sum();
+    }
+
+    /**
+     * @return ожидающие уведомления процесса после каждого {@code drain}
+     */
+    public Histogram getPendingPerProcess() {
+        return pendingPerProcess;
+    }
+
+    public Histogram getEmittedPerDrain() {
+        return emittedPerDrain;
+    }
+
+    public Histogram getDrainLatencyNanos() {
+        return drainLatencyNanos;
+    }
+
+    /**
+     * Распределение неотрицательных значений с корзинами {@code 0, 1, [2, 4), [4, 8), ...}.
+     * Перцентиль возвращается верхней границей своей корзины, то есть с точностью до двух раз
+     */
+    public static final class Histogram {
+        private static final int BUCKETS = Long.SIZE + 1;
+
+        private final LongAdder[] buckets = new LongAdder[BUCKETS];
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sum = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+        Histogram() {
+            for (int i = 0; i < BUCKETS; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        void record(long value) {
+            if (value < 0) {
+                value = 0;
+            }
+            buckets[Long.SIZE - Long.numberOfLeadingZeros(value)].increment();
+            count.increment();
+            sum.add(value);
+            max.accumulate(value);
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public double getMean() {
+            long total = count.sum();
+            return total == 0 ? 0 : (double) sum.sum() / total;
+        }
+
+        public long getMax() {
+            return max.get();
+        }
+
+        /**
+         * @param percentile от 0 до 100
+         */
+        public long getValueAtPercentile(double percentile) {
+            if (percentile < 0 || percentile > 100) {
+                throw new IllegalArgumentException("percentile out of range: " + percentile);
+            }
+            long[] snapshot = new long[BUCKETS];
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                snapshot[i] = buckets[i].sum();
+                total += snapshot[i];
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += snapshot[i];
+                if (seen >= rank) {
+                    return Math.min(upperBound(i), getMax());
+                }
+            }
+            return getMax();
+        }
+
+        private static long upperBound(int bucket) {
+            return bucket == Long.SIZE ? Long.MAX_VALUE : (1L << bucket) - 1;
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.vk.dwzkf.test.impl;
+
+import com.vk.dwzkf.test.Accumulator;
+import com.vk.dwzkf.test.AccumulatorConfig;
+import com.vk.dwzkf.test.EvictionPolicy;
+import com.vk.dwzkf.test.StateObject;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.function.LongFunction;
+
+/**
+ * Потокобезопасный аккумулятор с неблокирующим приемом уведомлений.
+ * <p>
+ * {@link #accept(StateObject)} только добавляет уведомление во входящую очередь процесса ({@link MpscInbox})
+ * и не берет никаких блокировок. Единственный читатель очереди - {@link #drain(Long)}:
+ * он переносит накопившиеся уведомления в {@link ProcessBuffer} и строит из них итоговый список.
+ * Поэтому принятые и повторные уведомления попадают в метрики при переносе, а не в момент приема.
+ * <p>
+ * Завершенные процессы вытесняются в {@link TombstoneSet}, если не выбрана {@link EvictionPolicy#RETAIN}
+ * @since 16.10.2026
+ */
+public class LockFreeAccumulator implements Accumulator, DirtyTracking {
+    private final ConcurrentLongObjectMap<ProcessSlot> processes;
+    private final Queue<ProcessSlot> dirty = new ConcurrentLinkedQueue<>();
+    private final TombstoneSet finalized = new TombstoneSet();
+    private final LongFunction<ProcessSlot> slotFactory = this::newSlot;
+    private final int initialCapacity;
+    private final boolean evict;
+    private final MetricsRecorder metrics;
+    private final LongConsumer finalizedListener;
+    private LongConsumer dirtyListener = NONE;
+
+    public LockFreeAccumulator() {
+        this(AccumulatorConfig.DEFAULT);
+    }
+
+    public LockFreeAccumulator(AccumulatorConfig config) {
+        processes = new ConcurrentLongObjectMap<>(config.getExpectedProcesses());
+        initialCapacity = config.getInitialCapacity();
+        evict = config.getEvictionPolicy() == EvictionPolicy.TOMBSTONE;
+        metrics = new MetricsRecorder(config.getMetrics());
+        finalizedListener = config.getFinalizedListener();
+    }
+
+    /**
+     * Получатель вызывается на каждое уведомление, прошедшее отсев по курсору: повторы здесь еще не видны
+     */
+    @Override
+    public void setDirtyListener(LongConsumer listener) {
+        dirtyListener = listener;
+    }
+
+    @Override
+    public void accept(StateObject stateObject) {
+        ProcessSlot slot = processes.computeIfAbsent(stateObject.processIdValue(), slotFactory);
+        // O(1) отсев по снимку курсора: уведомления, которые уже никогда не будут выданы, не попадают в очередь.
+        // Повторы отсеиваются при переносе из очереди в буфер
+        if (slot != null && (slot.acceptable & 1 << stateObject.stateOrdinal()) != 0) {
+            slot.inbox.offer(stateObject);
+            markDirty(slot);
+        } else if (slot == null || slot.acceptable == 0) {
+            metrics.rejectedAfterFinal(1);
+        } else {
+            metrics.rejectedStale();
+        }
+    }
+
+    /**
+     * Уведомления сначала группируются по процессам, затем каждая группа добавляется в очередь процесса
+     * одной атомарной операцией
+     */
+    @Override
+    public void acceptAll(List<StateObject> stateObjects) {
+        for (List<StateObject> group : ProcessBatches.groupByProcess(stateObjects)) {
+            ProcessSlot slot = processes.computeIfAbsent(group.get(0).processIdValue(), slotFactory);
+            if (slot != null && slot.acceptable != 0) {
+                slot.inbox.offerAll(group);
+                markDirty(slot);
+            } else {
+                metrics.rejectedAfterFinal(group.size());
+            }
+        }
+    }
+
+    @Override
+    public List<StateObject> drain(Long processId) {
+        List<StateObject> result = new ArrayList<>();
+        drain(processId, result::add);
+        return result;
+    }
+
+    /**
+     * {@code sink} вызывается под монитором процесса
+     */
+    @Override
+    public void drain(long processId, Consumer<? super StateObject> sink) {
+        ProcessSlot slot = processes.get(processId);
+        if (slot != null) {
+            drain(slot, sink);
+        }
+    }
+
+    @Override
+    public Map<Long, List<StateObject>> drainReady() {
+        Map<Long, List<StateObject>> result = new LinkedHashMap<>();
+        ProcessSlot slot;
+        while ((slot = dirty.poll()) != null) {
+            // флаг снимается до разбора очереди, чтобы уведомления, пришедшие во время drain, снова пометили процесс
+            slot.dirty.set(false);
+            List<StateObject> stateObjects = new ArrayList<>();
+            drain(slot, stateObjects::add);
+            if (!stateObjects.isEmpty()) {
+                // процесс мог снова попасть в очередь, пока шел этот же обход
+                result.merge(slot.buffer.getProcessId(), stateObjects, (first, second) -> {
+                    first.addAll(second);
+                    return first;
+                });
+            }
+        }
+        return result;
+    }
+
+    private void drain(ProcessSlot slot, Consumer<? super StateObject> sink) {
+        if (!slot.drain(sink)) {
+            return;
+        }
+        finalizedListener.accept(slot.buffer.getProcessId());
+        if (evict) {
+            // отметка ставится до удаления: новый слот для процесса создается только если отметки нет
+            finalized.add(slot.buffer.getProcessId());
+            processes.remove(slot.buffer.getProcessId());
+        }
+    }
+
+    /**
+     * Вызывается под блокировкой сегмента таблицы процессов
+     * @return новый слот или {@code null}, если процесс уже завершен
+     */
+    private ProcessSlot newSlot(long processId) {
+        if (finalized.contains(processId)) {
+            return null;
+        }
+        metrics.processOpened();
+        return new ProcessSlot(processId, initialCapacity, metrics);
+    }
+
+    private void markDirty(ProcessSlot slot) {
+        // без разбора очереди неизвестно, можно ли что-то выдать,
+        // поэтому готовым считается любой процесс с новыми уведомлениями
+        if (!slot.dirty.get() && slot.dirty.compareAndSet(false, true)) {
+            dirty.add(slot);
+        }
+        dirtyListener.accept(slot.buffer.getProcessId());
+    }
+
+    private static final class ProcessSlot {
+        private final MpscInbox<StateObject> inbox = new MpscInbox<>();
+        private final AtomicBoolean dirty = new AtomicBoolean();
+        private final ProcessBuffer buffer;
+        private final MetricsRecorder metrics;
+        private final Consumer<StateObject> merge = this::merge;
+        /**
+         * {@link ProcessBuffer#acceptableMask()} на момент последнего {@code drain}, читается без блокировки
+         */
+        private volatile int acceptable;
+
+        private ProcessSlot(long processId, int initialCapacity, MetricsRecorder metrics) {
+            buffer = new ProcessBuffer(processId, initialCapacity);
+            this.metrics = metrics;
+            acceptable = buffer.acceptableMask();
+        }
+
+        /**
+         * @return процесс завершился именно в этом вызове
+         */
+        private synchronized boolean drain(Consumer<? super StateObject> sink) {
+            long start = metrics.drainStarted();
+            if (buffer.isFinalized()) {
+                // опоздавшие уведомления сохраненного процесса не должны копиться в очереди
+                inbox.drain(merge);
+                metrics.drained(start, 0, buffer);
+                return false;
+            }
+            inbox.drain(merge);
+            metrics.drained(start, buffer.drain(sink), buffer);
+            acceptable = buffer.acceptableMask();
+            if (buffer.isFinalized()) {
+                metrics.processFinalized();
+                return true;
+            }
+            return false;
+        }
+
+        private void merge(StateObject stateObject) {
+            metrics.accepted(buffer.accept(stateObject));
+        }
+    }
+}
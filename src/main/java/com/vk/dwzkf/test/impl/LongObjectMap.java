@@ -0,0 +1,197 @@
+package com.vk.dwzkf.test.impl;
+
+import java.util.function.LongFunction;
+
+/**
+ * Хеш-таблица с примитивными ключами {@code long} и открытой адресацией (линейное пробирование).
+ * <p>
+ * Ключи и значения лежат в двух плоских массивах, поэтому поиск не создает объектов
+ * и не ходит по цепочкам узлов, как {@link java.util.HashMap HashMap&lt;Long, V&gt;}.
+ * Ключ {@code 0} служит признаком пустой ячейки и хранится отдельно.
+ * <p>
+ * Не потокобезопасна, см. {@link ConcurrentLongObjectMap}
+ * @since 16.10.2026
+ */
+class LongObjectMap<V> {
+    private static final int MIN_CAPACITY = 8;
+
+    private long[] keys;
+    private Object[] values;
+    private int mask;
+    private int size;
+    private boolean hasZeroKey;
+    private Object zeroValue;
+
+    LongObjectMap() {
+        this(MIN_CAPACITY);
+    }
+
+    LongObjectMap(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    int size() {
+        return hasZeroKey ? size + 1 : size;
+    }
+
+    boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(long key) {
+        if (key == 0) {
+            return hasZeroKey ? (V) zeroValue : null;
+        }
+        // массивы читаются в локальные переменные: так чтение устойчиво к одновременной перестройке
+        // таблицы и может использоваться под оптимистичной блокировкой
+        long[] keys = this.keys;
+        Object[] values = this.values;
+        if (keys.length != values.length) {
+            return null;
+        }
+        int mask = keys.length - 1;
+        int index = index(key, mask);
+        for (int probes = 0; probes <= mask; probes++) {
+            long current = keys[index];
+            if (current == key) {
+                return (V) values[index];
+            }
+            if (current == 0) {
+                return null;
+            }
+            index = (index + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * @return предыдущее значение или {@code null}
+     */
+    @SuppressWarnings("unchecked")
+    V put(long key, V value) {
+        if (key == 0) {
+            V previous = hasZeroKey ? (V) zeroValue : null;
+            hasZeroKey = true;
+            zeroValue = value;
+            return previous;
+        }
+        int index = index(key, mask);
+        while (true) {
+            long current = keys[index];
+            if (current == key) {
+                V previous = (V) values[index];
+                values[index] = value;
+                return previous;
+            }
+            if (current == 0) {
+                keys[index] = key;
+                values[index] = value;
+                if (++size > (mask + 1) >>> 1) {
+                    rehash();
+                }
+                return null;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    /**
+     * Возвращает значение по ключу, а если его нет - создает через {@code factory}.
+     * Если {@code factory} вернула {@code null}, ничего не добавляется
+     */
+    V computeIfAbsent(long key, LongFunction<? extends V> factory) {
+        V value = get(key);
+        if (value == null) {
+            value = factory.apply(key);
+            if (value != null) {
+                put(key, value);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * @return удаленное значение или {@code null}
+     */
+    @SuppressWarnings("unchecked")
+    V remove(long key) {
+        if (key == 0) {
+            V previous = hasZeroKey ? (V) zeroValue : null;
+            hasZeroKey = false;
+            zeroValue = null;
+            return previous;
+        }
+        int index = index(key, mask);
+        while (true) {
+            long current = keys[index];
+            if (current == 0) {
+                return null;
+            }
+            if (current == key) {
+                V previous = (V) values[index];
+                shiftBack(index);
+                size--;
+                return previous;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    /**
+     * Удаление без надгробий: элементы той же цепочки пробирования сдвигаются на освободившееся место
+     */
+    private void shiftBack(int gap) {
+        int index = (gap + 1) & mask;
+        long current;
+        while ((current = keys[index]) != 0) {
+            int home = index(current, mask);
+            if (((index - home) & mask) >= ((index - gap) & mask)) {
+                keys[gap] = current;
+                values[gap] = values[index];
+                gap = index;
+            }
+            index = (index + 1) & mask;
+        }
+        keys[gap] = 0;
+        values[gap] = null;
+    }
+
+    private void rehash() {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(oldKeys.length << 1);
+        for (int i = 0; i < oldKeys.length; i++) {
+            long key = oldKeys[i];
+            if (key != 0) {
+                int index = index(key, mask);
+                while (keys[index] != 0) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = key;
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        // новые ключи публикуются после значений, см. проверку длин в get
+        values = new Object[capacity];
+        keys = new long[capacity];
+        mask = capacity - 1;
+    }
+
+    static long mix(long key) {
+        return key * 0x9E3779B97F4A7C15L;
+    }
+
+    private static int index(long key, int mask) {
+        long hash = mix(key);
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private static int capacityFor(int expectedSize) {
+        long capacity = Math.max(MIN_CAPACITY, (long) expectedSize << 1);
+        return (int) Math.min(1 << 30, Long.highestOneBit(capacity - 1) << 1);
+    }
+}
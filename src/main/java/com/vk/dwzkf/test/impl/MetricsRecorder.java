@@ -0,0 +1,87 @@
+package com.vk.dwzkf.test.impl;
+
+import com.vk.dwzkf.test.AccumulatorMetrics;
+
+/**
+ * Обертка над {@link AccumulatorMetrics}, через которую метрики пишут реализации аккумулятора.
+ * <p>
+ * Признак {@link AccumulatorMetrics#isEnabled()} читается один раз, при выключенных метриках каждый метод -
+ * одна проверка поля: получатель не вызывается, время не замеряется, размер буфера не считается
+ * @since 16.10.2026
+ */
+final class MetricsRecorder {
+    private final AccumulatorMetrics metrics;
+    private final boolean enabled;
+
+    MetricsRecorder(AccumulatorMetrics metrics) {
+        this.metrics = metrics;
+        this.enabled = metrics.isEnabled();
+    }
+
+    /**
+     * @return {@code result}, чтобы вызов можно было встроить в проверку
+     */
+    ProcessBuffer.AcceptResult accepted(ProcessBuffer.AcceptResult result) {
+        if (enabled) {
+            switch (result) {
+                case ACCEPTED:
+                    metrics.accepted();
+                    break;
+                case DUPLICATE:
+                    metrics.duplicate();
+                    break;
+                case AFTER_FINAL:
+                    metrics.rejectedAfterFinal();
+                    break;
+                case STALE:
+                    metrics.rejectedStale();
+                    break;
+                default:
+                    throw new IllegalStateException("Unexpected accept result: " + result);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Уведомления отброшены до буфера: процесс уже вытеснен в {@link TombstoneSet}
+     */
+    void rejectedAfterFinal(int count) {
+        if (enabled) {
+            for (int i = 0; i < count; i++) {
+                metrics.rejectedAfterFinal();
+            }
+        }
+    }
+
+    void rejectedStale() {
+        if (enabled) {
+            metrics.rejectedStale();
+        }
+    }
+
+    void processOpened() {
+        if (enabled) {
+            metrics.processOpened();
+        }
+    }
+
+    void processFinalized() {
+        if (enabled) {
+            metrics.processFinalized();
+        }
+    }
+
+    /**
+     * @return отметка начала {@code drain} для {@link #drained(long, int, ProcessBuffer)}
+     */
+    long drainStarted() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    void drained(long startNanos, int emitted, ProcessBuffer buffer) {
+        if (enabled) {
+            metrics.drained(emitted, buffer.pendingCount(), System.nanoTime() - startNanos);
+        }
+    }
+}
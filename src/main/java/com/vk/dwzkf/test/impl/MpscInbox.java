@@ -0,0 +1,77 @@
+package com.vk.dwzkf.test.impl;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Неограниченная очередь "много писателей - один читатель" (очередь Вьюкова).
+ * <p>
+ * {@link #offer(Object)} - одна атомарная операция {@code getAndSet} без циклов повтора,
+ * поэтому задержка записи не растет при конкуренции писателей.
+ * {@link #drain(Consumer)} может вызывать только один поток одновременно
+ * @since 16.10.2026
+ */
+final class MpscInbox<T> {
+    private final AtomicReference<Node<T>> tail;
+    /**
+     * Заглушка перед первым непрочитанным элементом, принадлежит читателю
+     */
+    private Node<T> head;
+
+    MpscInbox() {
+        Node<T> stub = new Node<>(null);
+        head = stub;
+        tail = new AtomicReference<>(stub);
+    }
+
+    void offer(T value) {
+        Node<T> node = new Node<>(value);
+        tail.getAndSet(node).next = node;
+    }
+
+    /**
+     * Добавляет все элементы одной атомарной операцией: цепочка узлов связывается заранее
+     */
+    void offerAll(List<? extends T> values) {
+        if (values.isEmpty()) {
+            return;
+        }
+        Node<T> first = new Node<>(values.get(0));
+        Node<T> last = first;
+        for (int i = 1; i < values.size(); i++) {
+            Node<T> node = new Node<>(values.get(i));
+            last.next = node;
+            last = node;
+        }
+        tail.getAndSet(last).next = first;
+    }
+
+    /**
+     * Передает в {@code consumer} все элементы, которые успели полностью добавиться
+     * @return количество переданных элементов
+     */
+    int drain(Consumer<? super T> consumer) {
+        int count = 0;
+        Node<T> current = head;
+        Node<T> next;
+        while ((next = current.next) != null) {
+            T value = next.value;
+            next.value = null;
+            current = next;
+            consumer.accept(value);
+            count++;
+        }
+        head = current;
+        return count;
+    }
+
+    private static final class Node<T> {
+        private T value;
+        private volatile Node<T> next;
+
+        private Node(T value) {
+            this.value = value;
+        }
+    }
+}
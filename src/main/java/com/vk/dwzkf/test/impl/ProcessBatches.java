@@ -0,0 +1,41 @@
+package com.vk.dwzkf.test.impl;
+
+import com.vk.dwzkf.test.StateObject;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Разбиение пачки уведомлений по процессам
+ * @since 16.10.2026
+ */
+final class ProcessBatches {
+    private ProcessBatches() {
+    }
+
+    /**
+     * Группирует уведомления по {@code processId} за один проход.
+     * Порядок групп - порядок первого появления процесса, порядок внутри группы сохраняется
+     * @return непустые группы уведомлений одного процесса
+     */
+    static List<List<StateObject>> groupByProcess(List<StateObject> stateObjects) {
+        List<List<StateObject>> groups = new ArrayList<>();
+        LongObjectMap<List<StateObject>> byProcess = new LongObjectMap<>();
+        List<StateObject> group = null;
+        long processId = 0;
+        for (StateObject stateObject : stateObjects) {
+            // подряд идущие уведомления одного процесса не требуют поиска в таблице
+            if (group == null || stateObject.processIdValue() != processId) {
+                processId = stateObject.processIdValue();
+                group = byProcess.get(processId);
+                if (group == null) {
+                    group = new ArrayList<>();
+                    byProcess.put(processId, group);
+                    groups.add(group);
+                }
+            }
+            group.add(stateObject);
+        }
+        return groups;
+    }
+}
@@ -0,0 +1,235 @@
+package com.vk.dwzkf.test.impl;
+
+import com.vk.dwzkf.test.State;
+import com.vk.dwzkf.test.StateObject;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Буфер уведомлений одного процесса.
+ * <p>
+ * Хранит курсор (последнее выданное состояние, его {@code seqNo} и признак финализации)
+ * и только те уведомления, которые еще не были выданы, разложенные по кучам отдельно для каждого состояния.
+ * Поэтому каждый {@link #drain(Consumer)} просматривает только то, что пришло после предыдущего,
+ * а шаг выбора следующего уведомления - это поиск по {@link StateTransitions} и извлечение из одной кучи.
+ * <p>
+ * Не потокобезопасен
+ * @since 16.10.2026
+ */
+class ProcessBuffer {
+    private static final int FINAL1 = State.FINAL1.ordinal();
+    private static final int FINAL2 = State.FINAL2.ordinal();
+
+    private final long processId;
+    /**
+     * Уведомления, которые еще не попали в итоговый список, по индексу {@link Enum#ordinal()} состояния
+     */
+    private final SeqNoHeap[] pending = new SeqNoHeap[StateTransitions.STATES.length];
+    /**
+     * Маска состояний, по которым есть ожидающие уведомления
+     */
+    private int pendingMask;
+    /**
+     * Номера всех принятых уведомлений, чтобы повторно присланное уведомление отбросить сразу.
+     * Занимает память по количеству принятых уведомлений, после финального уведомления отпускается
+     */
+    private SeqNoSet received = new SeqNoSet();
+    /**
+     * Строка {@link StateTransitions} для последнего выданного состояния
+     */
+    private int lastState = StateTransitions.INITIAL;
+    /**
+     * Было выдано финальное уведомление
+     */
+    private boolean finalized;
+    /**
+     * Буфер стоит в очереди процессов, готовых к {@code drain}
+     */
+    private boolean dirty;
+
+    /**
+     * Начальная емкость кучи одного состояния
+     */
+    private final int initialCapacity;
+
+    ProcessBuffer(long processId) {
+        this(processId, SeqNoHeap.DEFAULT_CAPACITY);
+    }
+
+    ProcessBuffer(long processId, int initialCapacity) {
+        this.processId = processId;
+        this.initialCapacity = initialCapacity;
+    }
+
+    long getProcessId() {
+        return processId;
+    }
+
+    /**
+     * Кладет уведомление в буфер, если его еще можно выдать.
+     * Все проверки - за O(1) по курсору, отброшенное уведомление не занимает памяти и не попадает в {@code drain}
+     */
+    AcceptResult accept(StateObject stateObject) {
+        if (finalized) {
+            return AcceptResult.AFTER_FINAL;
+        }
+        int state = stateObject.stateOrdinal();
+        if ((StateTransitions.reachable(lastState) & 1 << state) == 0) {
+            return AcceptResult.STALE;
+        }
+        if (!received.add(stateObject.seqNoValue())) {
+            return AcceptResult.DUPLICATE;
+        }
+        SeqNoHeap heap = pending[state];
+        if (heap == null) {
+            heap = pending[state] = new SeqNoHeap(initialCapacity);
+        }
+        heap.add(stateObject);
+        pendingMask |= 1 << state;
+        return AcceptResult.ACCEPTED;
+    }
+
+    /**
+     * Передает в {@code sink} согласованную последовательность уведомлений максимальной длины,
+     * продолжающую уже выданную.
+     * Уведомление снимается с буфера только после того, как {@code sink} его принял: если {@code sink}
+     * бросил исключение, это уведомление и все следующие остаются в буфере и будут выданы следующим {@code drain}
+     * @return количество выданных уведомлений
+     */
+    int drain(Consumer<? super StateObject> sink) {
+        int emitted = 0;
+        while (!finalized) {
+            // состояние выбирается по StateTransitions, среди его уведомлений - с наименьшим seqNo
+            int state = StateTransitions.next(lastState, pendingMask);
+            if (state == StateTransitions.NONE) {
+                prune();
+                return emitted;
+            }
+            SeqNoHeap heap = pending[state];
+            StateObject next = heap.peek();
+            sink.accept(next);
+            heap.poll();
+            if (heap.isEmpty()) {
+                pendingMask &= ~(1 << state);
+            }
+            emitted++;
+            lastState = next.stateOrdinal();
+            if (StateTransitions.isFinal(lastState)) {
+                finalized = true;
+                clearPending();
+                // после финала accept отвечает AFTER_FINAL, не заглядывая в номера
+                received = null;
+            }
+        }
+        return emitted;
+    }
+
+    boolean isFinalized() {
+        return finalized;
+    }
+
+    /**
+     * @return количество ожидающих уведомлений
+     */
+    int pendingCount() {
+        int count = 0;
+        for (SeqNoHeap heap : pending) {
+            if (heap != null) {
+                count += heap.size();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return маска состояний, уведомления которых буфер еще примет
+     */
+    int acceptableMask() {
+        return finalized ? 0 : StateTransitions.reachable(lastState);
+    }
+
+    /**
+     * @return есть уведомление, которое можно выдать прямо сейчас
+     */
+    boolean isDrainable() {
+        return !finalized && StateTransitions.next(lastState, pendingMask) != StateTransitions.NONE;
+    }
+
+    /**
+     * Помечает буфер как готовый к {@code drain}, если в нем есть что выдать
+     * @return {@code true} если буфер только что стал готовым и его надо поставить в очередь
+     */
+    boolean markDirty() {
+        if (dirty || !isDrainable()) {
+            return false;
+        }
+        dirty = true;
+        return true;
+    }
+
+    void clearDirty() {
+        dirty = false;
+    }
+
+    /**
+     * Выбрасывает ожидающие уведомления, которые уже никогда не будут выбраны:
+     * <ul>
+     *     <li>состояния, недостижимые из текущего (START после начала процесса);</li>
+     *     <li>финал выдается ровно один раз, поэтому из FINAL1 и FINAL2 нужно только по наименьшему {@code seqNo},
+     *     а при наличии FINAL1 все FINAL2 проигрывают ему по приоритету.</li>
+     * </ul>
+     * MID1 и MID2 чередуются без ограничений, их уведомления достижимы все.
+     * START сюда доживает только недостижимым: до начала процесса ожидающий START был бы выбран
+     */
+    private void prune() {
+        int dead = pendingMask & ~StateTransitions.reachable(lastState);
+        for (int state = 0; dead != 0; state++, dead >>>= 1) {
+            if ((dead & 1) != 0) {
+                discard(state);
+            }
+        }
+        pruneDominated(FINAL1, FINAL2);
+    }
+
+    private void pruneDominated(int preferred, int other) {
+        if ((pendingMask & 1 << preferred) != 0) {
+            pending[preferred].retainMin();
+            discard(other);
+        } else if ((pendingMask & 1 << other) != 0) {
+            pending[other].retainMin();
+        }
+    }
+
+    /**
+     * Куча отпускается целиком, чтобы массивы, разросшиеся на всплеске повторов, не держались в памяти
+     */
+    private void discard(int state) {
+        pending[state] = null;
+        pendingMask &= ~(1 << state);
+    }
+
+    private void clearPending() {
+        Arrays.fill(pending, null);
+        pendingMask = 0;
+    }
+
+    /**
+     * Результат {@link #accept(StateObject)}
+     */
+    enum AcceptResult {
+        ACCEPTED,
+        /**
+         * Уведомление с таким {@code seqNo} уже принималось
+         */
+        DUPLICATE,
+        /**
+         * Процесс уже завершен
+         */
+        AFTER_FINAL,
+        /**
+         * Состояние недостижимо из текущего, например, START после начала процесса
+         */
+        STALE
+    }
+}
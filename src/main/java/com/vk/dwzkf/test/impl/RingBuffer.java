@@ -0,0 +1,88 @@
+package com.vk.dwzkf.test.impl;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Ограниченная кольцевая очередь "много писателей - один читатель" (очередь Вьюкова).
+ * <p>
+ * У каждой ячейки свой счетчик последовательности: писатель занимает позицию одним {@code compareAndSet}
+ * курсора и публикует элемент записью счетчика, читатель видит ячейку заполненной, когда счетчик
+ * опережает его позицию на единицу. Память под очередь выделяется один раз.
+ * {@link #poll()} может вызывать только один поток одновременно
+ * @since 16.10.2026
+ */
+final class RingBuffer<T> {
+    private final Object[] values;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    /**
+     * Позиция читателя, принадлежит ему
+     */
+    private long head;
+
+    /**
+     * @param capacity емкость, округляется вверх до степени двойки
+     */
+    RingBuffer(int capacity) {
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("capacity out of range: " + capacity);
+        }
+        int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        values = new Object[size];
+        sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        mask = size - 1;
+    }
+
+    int capacity() {
+        return values.length;
+    }
+
+    /**
+     * @return {@code false} если очередь заполнена
+     */
+    boolean offer(T value) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    values[index] = value;
+                    // volatile-запись: читатель, собравшийся уснуть, либо увидит элемент, либо будет разбужен
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * @return следующий элемент или {@code null}, если очередь пуста
+     */
+    @SuppressWarnings("unchecked")
+    T poll() {
+        int index = (int) (head & mask);
+        if (sequences.get(index) != head + 1) {
+            return null;
+        }
+        T value = (T) values[index];
+        values[index] = null;
+        sequences.lazySet(index, head + values.length);
+        head++;
+        return value;
+    }
+
+    boolean isEmpty() {
+        return sequences.get((int) (head & mask)) != head + 1;
+    }
+}
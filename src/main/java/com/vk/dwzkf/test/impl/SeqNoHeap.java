@@ -0,0 +1,114 @@
+package com.vk.dwzkf.test.impl;
+
+import com.vk.dwzkf.test.StateObject;
+
+import java.util.Arrays;
+
+/**
+ * Двоичная min-куча уведомлений по {@code seqNo}.
+ * <p>
+ * Ключи хранятся отдельным примитивным массивом, поэтому сравнения не распаковывают {@code Integer}
+ * и не ходят по ссылкам на сами уведомления.
+ * <p>
+ * Не потокобезопасна
+ * @since 16.10.2026
+ */
+final class SeqNoHeap {
+    static final int DEFAULT_CAPACITY = 4;
+
+    private int[] keys;
+    private StateObject[] values;
+    private int size;
+
+    SeqNoHeap(int initialCapacity) {
+        int capacity = Math.max(1, initialCapacity);
+        keys = new int[capacity];
+        values = new StateObject[capacity];
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void add(StateObject stateObject) {
+        if (size == keys.length) {
+            int capacity = size << 1;
+            keys = Arrays.copyOf(keys, capacity);
+            values = Arrays.copyOf(values, capacity);
+        }
+        siftUp(size++, stateObject.seqNoValue(), stateObject);
+    }
+
+    /**
+     * @return уведомление с наименьшим {@code seqNo} или {@code null} если куча пуста
+     */
+    StateObject peek() {
+        return size == 0 ? null : values[0];
+    }
+
+    /**
+     * Извлекает уведомление с наименьшим {@code seqNo}
+     * @return уведомление или {@code null} если куча пуста
+     */
+    StateObject poll() {
+        if (size == 0) {
+            return null;
+        }
+        StateObject result = values[0];
+        int last = --size;
+        int key = keys[last];
+        StateObject value = values[last];
+        values[last] = null;
+        if (last > 0) {
+            siftDown(0, key, value);
+        }
+        return result;
+    }
+
+    /**
+     * Оставляет в куче только уведомление с наименьшим {@code seqNo}
+     */
+    void retainMin() {
+        if (size > 1) {
+            Arrays.fill(values, 1, size, null);
+            size = 1;
+        }
+    }
+
+    private void siftUp(int index, int key, StateObject value) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (keys[parent] <= key) {
+                break;
+            }
+            keys[index] = keys[parent];
+            values[index] = values[parent];
+            index = parent;
+        }
+        keys[index] = key;
+        values[index] = value;
+    }
+
+    private void siftDown(int index, int key, StateObject value) {
+        int half = size >>> 1;
+        while (index < half) {
+            int child = (index << 1) + 1;
+            int right = child + 1;
+            if (right < size && keys[right] < keys[child]) {
+                child = right;
+            }
+            if (key <= keys[child]) {
+                break;
+            }
+            keys[index] = keys[child];
+            values[index] = values[child];
+            index = child;
+        }
+        keys[index] = key;
+        values[index] = value;
+    }
+}
@@ -0,0 +1,65 @@
+package com.vk.dwzkf.test.impl;
+
+/**
+ * Множество {@code seqNo} одного процесса: открытая адресация (линейное пробирование) по массиву {@code int}.
+ * <p>
+ * Память зависит только от количества номеров, а не от их величины, как у {@link java.util.BitSet}:
+ * одно уведомление с {@code seqNo} около {@link Integer#MAX_VALUE} стоит одной ячейки.
+ * Номер {@code 0} служит признаком пустой ячейки, поэтому номера должны быть положительными.
+ * <p>
+ * Не потокобезопасно
+ * @since 16.10.2026
+ */
+final class SeqNoSet {
+    private static final int MIN_CAPACITY = 8;
+
+    private int[] seqNos = new int[MIN_CAPACITY];
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return {@code false} если номер уже был добавлен
+     */
+    boolean add(int seqNo) {
+        int mask = seqNos.length - 1;
+        int index = index(seqNo, mask);
+        while (true) {
+            int current = seqNos[index];
+            if (current == seqNo) {
+                return false;
+            }
+            if (current == 0) {
+                seqNos[index] = seqNo;
+                // заполнение до 3/4: номера одного процесса почти не дают коллизий
+                if (++size > (mask + 1) - ((mask + 1) >>> 2)) {
+                    rehash();
+                }
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    private void rehash() {
+        int[] previous = seqNos;
+        seqNos = new int[previous.length << 1];
+        int mask = seqNos.length - 1;
+        for (int seqNo : previous) {
+            if (seqNo != 0) {
+                int index = index(seqNo, mask);
+                while (seqNos[index] != 0) {
+                    index = (index + 1) & mask;
+                }
+                seqNos[index] = seqNo;
+            }
+        }
+    }
+
+    private static int index(int seqNo, int mask) {
+        int hash = seqNo * 0x9E3779B9;
+        return (hash ^ hash >>> 16) & mask;
+    }
+}
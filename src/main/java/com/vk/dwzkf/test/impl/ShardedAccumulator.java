@@ -0,0 +1,308 @@
+package com.vk.dwzkf.test.impl;
+
+import com.vk.dwzkf.test.Accumulator;
+import com.vk.dwzkf.test.AccumulatorConfig;
+import com.vk.dwzkf.test.StateObject;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+/**
+ * Аккумулятор из N однопоточных разделов.
+ * <p>
+ * {@code processId} по хешу закреплен за одним разделом. У раздела свой поток-владелец, своя
+ * кольцевая очередь входящих сообщений ({@link RingBuffer}) и свой {@link AccumulatorImpl},
+ * к которому обращается только поток-владелец, поэтому состояние процессов не требует синхронизации.
+ * {@link #accept(StateObject)} и {@link #acceptAll(List)} кладут сообщение в очередь раздела,
+ * {@code drain} - запрос к разделу с ожиданием ответа.
+ * <p>
+ * Поток раздела при пустой очереди сначала крутится, затем засыпает до следующего сообщения.
+ * Писатель при заполненной очереди ждет, пока раздел ее разберет.
+ * После {@link #close()} новые сообщения отклоняются, а запросы, не дождавшиеся остановленного раздела,
+ * завершаются с {@link IllegalStateException}
+ * @since 16.10.2026
+ */
+public class ShardedAccumulator implements Accumulator, DirtyTracking {
+    /**
+     * На одном ядре ожидание в цикле только отнимает время у того, кого ждут
+     */
+    private static final int SPINS = Runtime.getRuntime().availableProcessors() > 1 ? 1_000 : 1;
+
+    private final Shard[] shards;
+
+    public ShardedAccumulator() {
+        this(AccumulatorConfig.DEFAULT);
+    }
+
+    /**
+     * Количество разделов и емкость их очередей берутся из {@link AccumulatorConfig#getShards()}
+     * и {@link AccumulatorConfig#getRingCapacity()}, ожидаемые процессы делятся между разделами
+     */
+    public ShardedAccumulator(AccumulatorConfig config) {
+        int shardCount = config.getShards();
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("shardCount must be positive: " + shardCount);
+        }
+        shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(i, config);
+        }
+        for (Shard shard : shards) {
+            shard.thread.start();
+        }
+    }
+
+    /**
+     * Получатель вызывается в потоке раздела
+     */
+    @Override
+    public void setDirtyListener(LongConsumer listener) {
+        for (Shard shard : shards) {
+            shard.accumulator.setDirtyListener(listener);
+        }
+    }
+
+    @Override
+    public void accept(StateObject stateObject) {
+        shard(stateObject.processIdValue()).send(stateObject);
+    }
+
+    /**
+     * Уведомления сначала раскладываются по разделам, затем каждый раздел получает свою часть одним сообщением
+     */
+    @Override
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void acceptAll(List<StateObject> stateObjects) {
+        if (shards.length == 1) {
+            shards[0].send(List.copyOf(stateObjects));
+            return;
+        }
+        List<StateObject>[] batches = new List[shards.length];
+        for (StateObject stateObject : stateObjects) {
+            int index = shardIndex(stateObject.processIdValue());
+            if (batches[index] == null) {
+                batches[index] = new ArrayList<>();
+            }
+            batches[index].add(stateObject);
+        }
+        for (int i = 0; i < batches.length; i++) {
+            if (batches[i] != null) {
+                shards[i].send(batches[i]);
+            }
+        }
+    }
+
+    @Override
+    public List<StateObject> drain(Long processId) {
+        List<StateObject> result = new ArrayList<>();
+        drain(processId, result::add);
+        return result;
+    }
+
+    /**
+     * {@code sink} вызывается в потоке раздела
+     */
+    @Override
+    public void drain(long processId, Consumer<? super StateObject> sink) {
+        Shard shard = shard(processId);
+        DrainRequest request = new DrainRequest(processId, sink);
+        shard.send(request);
+        await(shard, request.completion);
+    }
+
+    /**
+     * Разделы выполняют {@code drain} параллельно, каждый по своим процессам
+     */
+    @Override
+    public Map<Long, List<StateObject>> drainReady() {
+        List<DrainReadyRequest> requests = new ArrayList<>(shards.length);
+        for (Shard shard : shards) {
+            DrainReadyRequest request = new DrainReadyRequest();
+            shard.send(request);
+            requests.add(request);
+        }
+        Map<Long, List<StateObject>> result = new LinkedHashMap<>();
+        for (int i = 0; i < shards.length; i++) {
+            result.putAll(await(shards[i], requests.get(i).completion));
+        }
+        return result;
+    }
+
+    /**
+     * Останавливает потоки разделов после разбора уже принятых сообщений
+     */
+    @Override
+    public void close() {
+        for (Shard shard : shards) {
+            shard.running = false;
+            LockSupport.unpark(shard.thread);
+        }
+        for (Shard shard : shards) {
+            try {
+                shard.thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private Shard shard(long processId) {
+        return shards[shardIndex(processId)];
+    }
+
+    private int shardIndex(long processId) {
+        return (int) Long.remainderUnsigned(LongObjectMap.mix(processId), shards.length);
+    }
+
+    /**
+     * Ждет ответа раздела или его остановки. Запрос, оставшийся без ответа после остановки, уже не будет разобран
+     */
+    private static <T> T await(Shard shard, CompletableFuture<T> completion) {
+        if (!completion.isDone()) {
+            CompletableFuture.anyOf(completion, shard.terminated).exceptionally(e -> null).join();
+            completion.completeExceptionally(new IllegalStateException("ShardedAccumulator is closed"));
+        }
+        try {
+            return completion.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static final class DrainRequest {
+        private final long processId;
+        private final Consumer<? super StateObject> sink;
+        private final CompletableFuture<Void> completion = new CompletableFuture<>();
+
+        private DrainRequest(long processId, Consumer<? super StateObject> sink) {
+            this.processId = processId;
+            this.sink = sink;
+        }
+    }
+
+    private static final class DrainReadyRequest {
+        private final CompletableFuture<Map<Long, List<StateObject>>> completion = new CompletableFuture<>();
+    }
+
+    private static final class Shard implements Runnable {
+        private final RingBuffer<Object> inbox;
+        private final AccumulatorImpl accumulator;
+        private final Thread thread;
+        /**
+         * Завершается, когда поток раздела больше не разбирает очередь
+         */
+        private final CompletableFuture<Void> terminated = new CompletableFuture<>();
+        private volatile boolean running = true;
+        private volatile boolean sleeping;
+
+        private Shard(int index, AccumulatorConfig config) {
+            inbox = new RingBuffer<>(config.getRingCapacity());
+            accumulator = new AccumulatorImpl(config, config.getExpectedProcesses() / config.getShards());
+            thread = new Thread(this, "accumulator-shard-" + index);
+            thread.setDaemon(true);
+        }
+
+        private void send(Object message) {
+            if (!running) {
+                throw new IllegalStateException("ShardedAccumulator is closed");
+            }
+            int attempts = 0;
+            while (!inbox.offer(message)) {
+                if (!running) {
+                    throw new IllegalStateException("ShardedAccumulator is closed");
+                }
+                if (++attempts < SPINS) {
+                    Thread.onSpinWait();
+                } else {
+                    LockSupport.parkNanos(1_000);
+                }
+            }
+            if (sleeping) {
+                LockSupport.unpark(thread);
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                process();
+            } finally {
+                // сообщения, положенные во время остановки, уже не будут разобраны: запросы завершаются с ошибкой
+                Object message;
+                while ((message = inbox.poll()) != null) {
+                    if (!(message instanceof StateObject) && !(message instanceof List)) {
+                        fail(message, new IllegalStateException("ShardedAccumulator is closed"));
+                    }
+                }
+                terminated.complete(null);
+            }
+        }
+
+        private void process() {
+            int idle = 0;
+            while (true) {
+                Object message = inbox.poll();
+                if (message != null) {
+                    handle(message);
+                    idle = 0;
+                } else if (!running) {
+                    return;
+                } else if (++idle < SPINS) {
+                    Thread.onSpinWait();
+                } else {
+                    sleeping = true;
+                    // писатель публикует элемент до проверки флага, поэтому либо он здесь виден, либо поток разбудят
+                    if (inbox.isEmpty() && running) {
+                        LockSupport.park(this);
+                    }
+                    sleeping = false;
+                    idle = 0;
+                }
+            }
+        }
+
+        /**
+         * Ошибка одного сообщения не останавливает раздел: запрос завершается с ошибкой,
+         * ошибка приема уведомлений передается обработчику непойманных исключений потока
+         */
+        @SuppressWarnings("unchecked")
+        private void handle(Object message) {
+            try {
+                if (message instanceof StateObject) {
+                    accumulator.accept((StateObject) message);
+                } else if (message instanceof List) {
+                    accumulator.acceptAll((List<StateObject>) message);
+                } else if (message instanceof DrainRequest) {
+                    DrainRequest request = (DrainRequest) message;
+                    accumulator.drain(request.processId, request.sink);
+                    request.completion.complete(null);
+                } else {
+                    ((DrainReadyRequest) message).completion.complete(accumulator.drainReady());
+                }
+            } catch (RuntimeException e) {
+                fail(message, e);
+            }
+        }
+
+        private void fail(Object message, RuntimeException error) {
+            if (message instanceof DrainRequest) {
+                ((DrainRequest) message).completion.completeExceptionally(error);
+            } else if (message instanceof DrainReadyRequest) {
+                ((DrainReadyRequest) message).completion.completeExceptionally(error);
+            } else {
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, error);
+            }
+        }
+    }
+}
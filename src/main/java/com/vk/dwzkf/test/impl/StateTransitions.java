@@ -0,0 +1,103 @@
+package com.vk.dwzkf.test.impl;
+
+import com.vk.dwzkf.test.State;
+
+/**
+ * Заранее скомпилированный граф состояний.
+ * <p>
+ * Строка таблицы - текущее состояние процесса ({@link State#ordinal()} или {@link #INITIAL}),
+ * столбец - битовая маска состояний, по которым есть ожидающие уведомления.
+ * В ячейке лежит состояние, уведомление которого надо выдать следующим, с уже учтенным приоритетом,
+ * поэтому выбор следующего шага - это одно обращение к массиву
+ * @since 16.10.2026
+ */
+final class StateTransitions {
+    static final State[] STATES = State.values();
+    /**
+     * Строка для процесса, по которому еще ничего не выдано
+     */
+    static final int INITIAL = STATES.length;
+    /**
+     * Нет допустимого перехода
+     */
+    static final int NONE = -1;
+
+    private static final int MASK_BITS = STATES.length;
+    private static final byte[] NEXT = new byte[(STATES.length + 1) << MASK_BITS];
+    private static final int[] ALLOWED = new int[STATES.length + 1];
+    private static final int[] REACHABLE = new int[STATES.length + 1];
+    private static final int FINAL_MASK = mask(State.FINAL1) | mask(State.FINAL2);
+
+    static {
+        // порядок перечисления - приоритет: MID раньше финальных, чтобы список был максимальной длины
+        allow(INITIAL, State.START1, State.START2);
+        allow(State.START1.ordinal(), State.MID1, State.FINAL1, State.FINAL2);
+        allow(State.START2.ordinal(), State.MID1, State.FINAL1, State.FINAL2);
+        allow(State.MID1.ordinal(), State.MID2, State.FINAL1, State.FINAL2);
+        allow(State.MID2.ordinal(), State.MID1, State.FINAL1, State.FINAL2);
+        allow(State.FINAL1.ordinal());
+        allow(State.FINAL2.ordinal());
+        for (int row = 0; row < REACHABLE.length; row++) {
+            REACHABLE[row] = closure(row);
+        }
+    }
+
+    private StateTransitions() {
+    }
+
+    /**
+     * @param row текущее состояние ({@link State#ordinal()} или {@link #INITIAL})
+     * @param pendingMask маска состояний, по которым есть ожидающие уведомления
+     * @return ordinal состояния, которое надо выдать следующим, или {@link #NONE}
+     */
+    static int next(int row, int pendingMask) {
+        return NEXT[row << MASK_BITS | pendingMask];
+    }
+
+    /**
+     * @param row текущее состояние ({@link State#ordinal()} или {@link #INITIAL})
+     * @return маска состояний, до которых можно дойти из {@code row} за любое число переходов.
+     * Уведомления остальных состояний уже никогда не будут выданы
+     */
+    static int reachable(int row) {
+        return REACHABLE[row];
+    }
+
+    static int mask(State state) {
+        return 1 << state.ordinal();
+    }
+
+    static boolean isFinal(int ordinal) {
+        return (FINAL_MASK & 1 << ordinal) != 0;
+    }
+
+    private static void allow(int row, State... byPriority) {
+        for (State state : byPriority) {
+            ALLOWED[row] |= mask(state);
+        }
+        for (int pendingMask = 0; pendingMask < 1 << MASK_BITS; pendingMask++) {
+            int next = NONE;
+            for (State state : byPriority) {
+                if ((pendingMask & mask(state)) != 0) {
+                    next = state.ordinal();
+                    break;
+                }
+            }
+            NEXT[row << MASK_BITS | pendingMask] = (byte) next;
+        }
+    }
+
+    private static int closure(int row) {
+        int reachable = ALLOWED[row];
+        int previous;
+        do {
+            previous = reachable;
+            for (State state : STATES) {
+                if ((reachable & mask(state)) != 0) {
+                    reachable |= ALLOWED[state.ordinal()];
+                }
+            }
+        } while (reachable != previous);
+        return reachable;
+    }
+}
@@ -0,0 +1,179 @@
+package com.vk.dwzkf.test.impl;
+
+import com.vk.dwzkf.test.Accumulator;
+import com.vk.dwzkf.test.AccumulatorConfig;
+import com.vk.dwzkf.test.EvictionPolicy;
+import com.vk.dwzkf.test.StateObject;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.function.LongFunction;
+
+/**
+ * Потокобезопасный аккумулятор.
+ * <p>
+ * Процессы хранятся в {@link ConcurrentLongObjectMap}, блокировка взята по процессу:
+ * {@link #accept(StateObject)} и {@link #drain(Long)} синхронизируются на буфере своего {@code processId},
+ * поэтому потоки, работающие с разными процессами, друг друга не ждут, а {@code drain} блокирует только свой процесс.
+ * <p>
+ * Завершенные процессы вытесняются в {@link TombstoneSet}, если не выбрана {@link EvictionPolicy#RETAIN}
+ * @since 16.10.2026
+ */
+public class StripedAccumulator implements Accumulator, DirtyTracking {
+    private final ConcurrentLongObjectMap<ProcessBuffer> processes;
+    private final Queue<ProcessBuffer> dirty = new ConcurrentLinkedQueue<>();
+    private final TombstoneSet finalized = new TombstoneSet();
+    private final LongFunction<ProcessBuffer> bufferFactory = this::newBuffer;
+    private final int initialCapacity;
+    private final boolean evict;
+    private final MetricsRecorder metrics;
+    private final LongConsumer finalizedListener;
+    private LongConsumer dirtyListener = NONE;
+
+    public StripedAccumulator() {
+        this(AccumulatorConfig.DEFAULT);
+    }
+
+    public StripedAccumulator(AccumulatorConfig config) {
+        processes = new ConcurrentLongObjectMap<>(config.getExpectedProcesses());
+        initialCapacity = config.getInitialCapacity();
+        evict = config.getEvictionPolicy() == EvictionPolicy.TOMBSTONE;
+        metrics = new MetricsRecorder(config.getMetrics());
+        finalizedListener = config.getFinalizedListener();
+    }
+
+    @Override
+    public void setDirtyListener(LongConsumer listener) {
+        dirtyListener = listener;
+    }
+
+    @Override
+    public void accept(StateObject stateObject) {
+        ProcessBuffer buffer = processes.computeIfAbsent(stateObject.processIdValue(), bufferFactory);
+        if (buffer == null) {
+            metrics.rejectedAfterFinal(1);
+            return;
+        }
+        boolean drainable;
+        boolean becameDirty;
+        synchronized (buffer) {
+            drainable = metrics.accepted(buffer.accept(stateObject)) == ProcessBuffer.AcceptResult.ACCEPTED
+                    && buffer.isDrainable();
+            becameDirty = drainable && buffer.markDirty();
+        }
+        markDirty(buffer, drainable, becameDirty);
+    }
+
+    /**
+     * Уведомления сначала группируются по процессам, затем блокировка каждого процесса берется один раз на группу
+     */
+    @Override
+    public void acceptAll(List<StateObject> stateObjects) {
+        for (List<StateObject> group : ProcessBatches.groupByProcess(stateObjects)) {
+            ProcessBuffer buffer = processes.computeIfAbsent(group.get(0).processIdValue(), bufferFactory);
+            if (buffer == null) {
+                metrics.rejectedAfterFinal(group.size());
+                continue;
+            }
+            boolean accepted = false;
+            boolean drainable;
+            boolean becameDirty;
+            synchronized (buffer) {
+                for (StateObject stateObject : group) {
+                    accepted |= metrics.accepted(buffer.accept(stateObject)) == ProcessBuffer.AcceptResult.ACCEPTED;
+                }
+                drainable = accepted && buffer.isDrainable();
+                becameDirty = drainable && buffer.markDirty();
+            }
+            markDirty(buffer, drainable, becameDirty);
+        }
+    }
+
+    @Override
+    public List<StateObject> drain(Long processId) {
+        List<StateObject> result = new ArrayList<>();
+        drain(processId, result::add);
+        return result;
+    }
+
+    /**
+     * {@code sink} вызывается под блокировкой процесса
+     */
+    @Override
+    public void drain(long processId, Consumer<? super StateObject> sink) {
+        ProcessBuffer buffer = processes.get(processId);
+        if (buffer != null) {
+            drain(buffer, sink);
+        }
+    }
+
+    @Override
+    public Map<Long, List<StateObject>> drainReady() {
+        Map<Long, List<StateObject>> result = new LinkedHashMap<>();
+        ProcessBuffer buffer;
+        while ((buffer = dirty.poll()) != null) {
+            List<StateObject> stateObjects = new ArrayList<>();
+            synchronized (buffer) {
+                buffer.clearDirty();
+            }
+            drain(buffer, stateObjects::add);
+            if (!stateObjects.isEmpty()) {
+                // процесс мог снова попасть в очередь, пока шел этот же обход
+                result.merge(buffer.getProcessId(), stateObjects, (first, second) -> {
+                    first.addAll(second);
+                    return first;
+                });
+            }
+        }
+        return result;
+    }
+
+    private void drain(ProcessBuffer buffer, Consumer<? super StateObject> sink) {
+        boolean finalizedNow;
+        synchronized (buffer) {
+            long start = metrics.drainStarted();
+            boolean wasFinalized = buffer.isFinalized();
+            metrics.drained(start, buffer.drain(sink), buffer);
+            finalizedNow = !wasFinalized && buffer.isFinalized();
+        }
+        if (finalizedNow) {
+            metrics.processFinalized();
+            finalizedListener.accept(buffer.getProcessId());
+            if (evict) {
+                // отметка ставится до удаления: новый буфер для процесса создается только если отметки нет
+                finalized.add(buffer.getProcessId());
+                processes.remove(buffer.getProcessId());
+            }
+        }
+    }
+
+    /**
+     * Вызывается вне блокировки процесса
+     */
+    private void markDirty(ProcessBuffer buffer, boolean drainable, boolean becameDirty) {
+        if (becameDirty) {
+            dirty.add(buffer);
+        }
+        if (drainable) {
+            dirtyListener.accept(buffer.getProcessId());
+        }
+    }
+
+    /**
+     * Вызывается под блокировкой сегмента таблицы процессов
+     * @return новый буфер или {@code null}, если процесс уже завершен
+     */
+    private ProcessBuffer newBuffer(long processId) {
+        if (finalized.contains(processId)) {
+            return null;
+        }
+        metrics.processOpened();
+        return new ProcessBuffer(processId, initialCapacity);
+    }
+}
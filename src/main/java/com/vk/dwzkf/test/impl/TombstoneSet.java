@@ -0,0 +1,153 @@
+package com.vk.dwzkf.test.impl;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Компактное множество ID завершенных процессов.
+ * <p>
+ * Устроено как roaring bitmap: старшие 48 бит ID выбирают контейнер, младшие 16 бит хранятся в нем.
+ * Пока в контейнере не больше {@value #ARRAY_LIMIT} ID, это отсортированный {@code char[]} (2 байта на процесс),
+ * дальше - битовая карта на 65536 бит (1 бит на процесс). Эти оценки верны, только если ID плотные,
+ * то есть многие ID делят старшие 48 бит: одинокий ID в своем диапазоне стоит ячейки таблицы, контейнера
+ * и {@code char[4]}, около 80 байт. Для идущих подряд ID это несколько бит на процесс
+ * вместо целого {@link ProcessBuffer}.
+ * <p>
+ * Отметки не удаляются: забытая отметка вернула бы процесс к жизни при опоздавшем уведомлении.
+ * Поэтому множество растет на каждый завершенный процесс, и при разреженных ID на долгих прогонах
+ * его размер ({@link #size()}) стоит отслеживать.
+ * <p>
+ * Потокобезопасно: проверка идет под оптимистичной блокировкой, добавление - под эксклюзивной.
+ * Оптимистичное чтение может увидеть контейнер в промежуточном состоянии, поэтому оно не бросает исключений
+ * на несогласованных данных, а результат такого чтения отбрасывается проверкой штампа
+ * @since 16.10.2026
+ */
+final class TombstoneSet {
+    static final int ARRAY_LIMIT = 4096;
+    private static final int BITMAP_WORDS = (1 << Character.SIZE) / Long.SIZE;
+
+    private final LongObjectMap<Object> containers = new LongObjectMap<>();
+    private final StampedLock lock = new StampedLock();
+    private long size;
+
+    boolean contains(long processId) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            boolean result = containsUnlocked(processId);
+            if (lock.validate(stamp)) {
+                return result;
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return containsUnlocked(processId);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * @return {@code true} если ID не было в множестве
+     */
+    boolean add(long processId) {
+        long stamp = lock.writeLock();
+        try {
+            long high = processId >>> Character.SIZE;
+            char low = (char) processId;
+            Object container = containers.get(high);
+            boolean added;
+            if (container == null) {
+                ArrayContainer array = new ArrayContainer();
+                added = array.add(low);
+                containers.put(high, array);
+            } else if (container instanceof ArrayContainer) {
+                ArrayContainer array = (ArrayContainer) container;
+                if (array.size == ARRAY_LIMIT && array.indexOf(low) < 0) {
+                    long[] bitmap = array.toBitmap();
+                    added = setBit(bitmap, low);
+                    containers.put(high, bitmap);
+                } else {
+                    added = array.add(low);
+                }
+            } else {
+                added = setBit((long[]) container, low);
+            }
+            if (added) {
+                size++;
+            }
+            return added;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    long size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private boolean containsUnlocked(long processId) {
+        Object container = containers.get(processId >>> Character.SIZE);
+        char low = (char) processId;
+        if (container instanceof ArrayContainer) {
+            return ((ArrayContainer) container).indexOf(low) >= 0;
+        }
+        if (container instanceof long[]) {
+            long[] bitmap = (long[]) container;
+            return (bitmap[low >>> 6] & 1L << low) != 0;
+        }
+        return false;
+    }
+
+    private static boolean setBit(long[] bitmap, char low) {
+        long bit = 1L << low;
+        long word = bitmap[low >>> 6];
+        bitmap[low >>> 6] = word | bit;
+        return (word & bit) == 0;
+    }
+
+    /**
+     * Отсортированный массив младших 16 бит ID
+     */
+    private static final class ArrayContainer {
+        private char[] values = new char[4];
+        private int size;
+
+        int indexOf(char value) {
+            // при оптимистичном чтении размер и массив могут быть из разных версий,
+            // а у только что опубликованного контейнера массив может быть еще не виден
+            char[] values = this.values;
+            if (values == null) {
+                return -1;
+            }
+            return Arrays.binarySearch(values, 0, Math.max(0, Math.min(size, values.length)), value);
+        }
+
+        boolean add(char value) {
+            int index = indexOf(value);
+            if (index >= 0) {
+                return false;
+            }
+            index = -index - 1;
+            if (size == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_LIMIT, size << 1));
+            }
+            System.arraycopy(values, index, values, index + 1, size - index);
+            values[index] = value;
+            size++;
+            return true;
+        }
+
+        long[] toBitmap() {
+            long[] bitmap = new long[BITMAP_WORDS];
+            for (int i = 0; i < size; i++) {
+                setBit(bitmap, values[i]);
+            }
+            return bitmap;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.vk.dwzkf.test.impl;
+
+import com.vk.dwzkf.test.Accumulator;
+import com.vk.dwzkf.test.StateObject;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+import java.util.function.LongSupplier;
+
+/**
+ * Аккумулятор, который сам выполняет {@code drain} по окнам.
+ * <p>
+ * Окно процесса открывается, когда после предыдущего {@code drain} делегат принял уведомление,
+ * которое можно выдать, и длится {@code window}: окна ведет учет готовых процессов делегата ({@link DirtyTracking}),
+ * поэтому повторы и отклоненные уведомления окон не открывают.
+ * Когда окно истекает, по процессу выполняется {@code drain}, а непустой результат передается в {@code consumer}.
+ * Явный {@link #drain(Long)} или выдача процесса из {@link #drainReady()} закрывает его окно.
+ * <p>
+ * Сроки всех окон лежат на одном {@link HashedTimingWheel}, которое прокручивает единственная периодическая задача,
+ * поэтому открытие и закрытие окна стоят O(1), а миллионы процессов не означают миллионы запланированных задач.
+ * Окно срабатывает с точностью до тика ({@code window / ticksPerWindow}).
+ * {@code consumer} вызывается из потока колеса.
+ * <p>
+ * Делегат должен быть потокобезопасным: уведомления в него передают потоки вызывающего,
+ * а {@code drain} по истекшим окнам - поток колеса. Поэтому {@link AccumulatorImpl} не подходит
+ * и отклоняется конструктором
+ * @since 16.10.2026
+ */
+public class WindowedAccumulator implements Accumulator {
+    public static final int DEFAULT_TICKS_PER_WINDOW = 8;
+
+    private final Accumulator delegate;
+    private final BiConsumer<Long, List<StateObject>> consumer;
+    private final ScheduledExecutorService scheduler;
+    private final long windowNanos;
+    private final LongSupplier nanoClock;
+    private final HashedTimingWheel wheel;
+    /**
+     * Сроки открытых окон
+     */
+    private final ConcurrentLongObjectMap<HashedTimingWheel.Timeout> windows = new ConcurrentLongObjectMap<>();
+    private final LongFunction<HashedTimingWheel.Timeout> windowFactory = this::openWindow;
+    private final Consumer<HashedTimingWheel.Timeout> expiredHandler = this::expire;
+
+    public WindowedAccumulator(Accumulator delegate, Duration window, BiConsumer<Long, List<StateObject>> consumer) {
+        this(delegate, window, DEFAULT_TICKS_PER_WINDOW, consumer);
+    }
+
+    public WindowedAccumulator(Accumulator delegate, Duration window, int ticksPerWindow,
+                               BiConsumer<Long, List<StateObject>> consumer) {
+        this(delegate, window, ticksPerWindow, consumer, System::nanoTime);
+    }
+
+    WindowedAccumulator(Accumulator delegate, Duration window, int ticksPerWindow,
+                        BiConsumer<Long, List<StateObject>> consumer, LongSupplier nanoClock) {
+        if (window.isNegative() || window.isZero()) {
+            throw new IllegalArgumentException("window must be positive: " + window);
+        }
+        if (ticksPerWindow < 1) {
+            throw new IllegalArgumentException("ticksPerWindow must be positive: " + ticksPerWindow);
+        }
+        if (!(delegate instanceof DirtyTracking)) {
+            throw new IllegalArgumentException("delegate does not track dirty processes: "
+                    + delegate.getClass().getName());
+        }
+        if (delegate instanceof AccumulatorImpl) {
+            throw new IllegalArgumentException("delegate must be thread-safe: " + delegate.getClass().getName());
+        }
+        this.delegate = delegate;
+        this.consumer = consumer;
+        this.windowNanos = window.toNanos();
+        this.nanoClock = nanoClock;
+        long tickNanos = Math.max(1, windowNanos / ticksPerWindow);
+        // окно целиком помещается в один оборот колеса
+        this.wheel = new HashedTimingWheel(tickNanos, ticksPerWindow + 1, nanoClock.getAsLong());
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "accumulator-window");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(this::advance, tickNanos, tickNanos, TimeUnit.NANOSECONDS);
+        ((DirtyTracking) delegate).setDirtyListener(this::schedule);
+    }
+
+    @Override
+    public void accept(StateObject stateObject) {
+        delegate.accept(stateObject);
+    }
+
+    @Override
+    public void acceptAll(List<StateObject> stateObjects) {
+        delegate.acceptAll(stateObjects);
+    }
+
+    @Override
+    public List<StateObject> drain(Long processId) {
+        closeWindow(processId);
+        return delegate.drain(processId);
+    }
+
+    @Override
+    public void drain(long processId, Consumer<? super StateObject> sink) {
+        closeWindow(processId);
+        delegate.drain(processId, sink);
+    }
+
+    @Override
+    public Map<Long, List<StateObject>> drainReady() {
+        Map<Long, List<StateObject>> result = delegate.drainReady();
+        for (Long processId : result.keySet()) {
+            closeWindow(processId);
+        }
+        return result;
+    }
+
+    /**
+     * Останавливает колесо. Уже открытые окна не срабатывают
+     */
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Вызывается делегатом, когда процесс стал готовым к {@code drain}, из любого его потока
+     */
+    private void schedule(long processId) {
+        if (windows.get(processId) == null) {
+            windows.computeIfAbsent(processId, windowFactory);
+        }
+    }
+
+    /**
+     * Вызывается под блокировкой сегмента таблицы окон
+     */
+    private HashedTimingWheel.Timeout openWindow(long processId) {
+        return wheel.schedule(processId, nanoClock.getAsLong(), windowNanos);
+    }
+
+    private void closeWindow(long processId) {
+        HashedTimingWheel.Timeout timeout = windows.remove(processId);
+        if (timeout != null) {
+            timeout.cancel();
+        }
+    }
+
+    /**
+     * Выполняется только в потоке колеса
+     */
+    private void advance() {
+        wheel.advance(nanoClock.getAsLong(), expiredHandler);
+    }
+
+    private void expire(HashedTimingWheel.Timeout timeout) {
+        long processId = timeout.getProcessId();
+        // окно закрывается до drain: уведомления, пришедшие во время drain, откроют новое.
+        // Если окно уже закрыл и открыл заново явный drain, новое окно не трогаем
+        windows.remove(processId, timeout);
+        try {
+            List<StateObject> stateObjects = delegate.drain(processId);
+            if (!stateObjects.isEmpty()) {
+                consumer.accept(processId, stateObjects);
+            }
+        } catch (RuntimeException e) {
+            // исключение из периодической задачи навсегда остановило бы колесо
+            Thread thread = Thread.currentThread();
+            thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.vk.dwzkf.test;
+
+import com.vk.dwzkf.test.impl.InMemoryMetrics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.vk.dwzkf.test.State.*;
+
+/**
+ * @since 16.10.2026
+ */
+public class AccumulatorFactoryTest {
+    private static final AtomicLong counter = new AtomicLong(2_000_000);
+
+    @ParameterizedTest
+    @EnumSource(AccumulatorFactory.Engine.class)
+    public void everyEngineDrainsConsistentSequence(AccumulatorFactory.Engine engine) {
+        InMemoryMetrics metrics = new InMemoryMetrics();
+        try (Accumulator accumulator = AccumulatorFactory.builder()
+                .engine(engine)
+                .expectedProcesses(1_000)
+                .initialCapacity(1)
+                .metrics(metrics)
+                .shards(2)
+                .build()
+                .getInstance()) {
+            Long processId = counter.getAndIncrement();
+            accumulator.acceptAll(List.of(new StateObject(processId, MID1, 2), new StateObject(processId, FINAL2, 3),
+                    new StateObject(processId, START2, 1)));
+
+            Assertions.assertEquals(3, accumulator.drain(processId).size());
+            Assertions.assertEquals(3, metrics.getAccepted());
+            Assertions.assertEquals(3, metrics.getEmittedPerDrain().getMax());
+            Assertions.assertEquals(1, metrics.getFinalizedProcesses());
+            Assertions.assertEquals(0, metrics.getOpenProcesses());
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(AccumulatorFactory.Engine.class)
+    public void retainedProcessStillIgnoresLateNotifications(AccumulatorFactory.Engine engine) {
+        try (Accumulator accumulator = AccumulatorFactory.builder()
+                .engine(engine)
+                .evictionPolicy(EvictionPolicy.RETAIN)
+                .shards(2)
+                .build()
+                .getInstance()) {
+            Long processId = counter.getAndIncrement();
+            accumulator.acceptAll(List.of(new StateObject(processId, START1, 1),
+                    new StateObject(processId, FINAL1, 2)));
+            Assertions.assertEquals(2, accumulator.drain(processId).size());
+
+            accumulator.accept(new StateObject(processId, MID1, 3));
+            Assertions.assertTrue(accumulator.drain(processId).isEmpty());
+            Assertions.assertTrue(accumulator.drainReady().isEmpty());
+        }
+    }
+
+    @Test
+    public void defaultFactoryIsSingleThreaded() {
+        Assertions.assertEquals(AccumulatorFactory.Engine.SINGLE_THREADED, new AccumulatorFactory().getEngine());
+        Assertions.assertSame(AccumulatorConfig.DEFAULT, new AccumulatorFactory().getConfig());
+    }
+
+    @Test
+    public void builderRejectsInvalidOptions() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> AccumulatorFactory.builder().shards(0));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> AccumulatorFactory.builder().expectedProcesses(-1));
+        Assertions.assertThrows(NullPointerException.class, () -> AccumulatorFactory.builder().metrics(null));
+    }
+}
@@ -1,10 +1,13 @@
 package com.vk.dwzkf.test;
 
+import com.vk.dwzkf.test.impl.ConcurrentSequenceGenerator;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
@@ -126,6 +129,93 @@ public class AccumulatorTest {
         checkStates(actual, FINAL1);
     }
 
+    @Test
+    public void case10() {
+        Long processId = counter.getAndIncrement();
+        List<StateObject> first = buildList(processId, START1, MID1);
+        accumulator.acceptAll(first);
+        accumulator.acceptAll(first);
+        List<StateObject> actual = accumulator.drain(processId);
+        checkSequenceNumbers(actual, 1, 2);
+        checkStates(actual, START1, MID1);
+
+        List<StateObject> second = buildList(processId, MID2, FINAL1);
+        accumulator.acceptAll(first);
+        accumulator.acceptAll(second);
+        accumulator.acceptAll(second);
+        actual = accumulator.drain(processId);
+        checkSequenceNumbers(actual, 3, 4);
+        checkStates(actual, MID2, FINAL1);
+    }
+
+    @Test
+    public void case11() {
+        Long started = counter.getAndIncrement();
+        Long notStarted = counter.getAndIncrement();
+        Long idle = counter.getAndIncrement();
+        accumulator.acceptAll(buildList(idle, START1));
+        accumulator.drainReady();
+
+        accumulator.acceptAll(buildList(started, MID1, START2));
+        accumulator.acceptAll(buildList(notStarted, MID1));
+        Map<Long, List<StateObject>> actual = accumulator.drainReady();
+        Assertions.assertEquals(List.of(started), List.copyOf(actual.keySet()));
+        checkSequenceNumbers(actual.get(started), 2, 1);
+        checkStates(actual.get(started), START2, MID1);
+
+        Assertions.assertTrue(accumulator.drainReady().isEmpty());
+    }
+
+    @Test
+    public void case12() {
+        Long processId = counter.getAndIncrement();
+        accumulator.acceptAll(buildList(processId, START2, MID1));
+        List<StateObject> actual = accumulator.drain(processId);
+        checkSequenceNumbers(actual, 1, 2);
+        checkStates(actual, START2, MID1);
+
+        accumulator.acceptAll(buildList(processId, START1, START2, MID2));
+        actual = accumulator.drain(processId);
+        checkSequenceNumbers(actual, 5);
+        checkStates(actual, MID2);
+    }
+
+    @Test
+    public void case13() {
+        Long processId = counter.getAndIncrement();
+        accumulator.acceptAll(buildList(processId, START1, MID2, MID1, FINAL2));
+        List<StateObject> actual = new ArrayList<>();
+        accumulator.drain(processId, actual::add);
+        checkSequenceNumbers(actual, 1, 3, 2, 4);
+        checkStates(actual, START1, MID1, MID2, FINAL2);
+
+        accumulator.drain(processId, stateObject -> Assertions.fail("drained twice: " + stateObject));
+    }
+
+    @Test
+    public void case14() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new StateObject(1, START1, 0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new StateObject(1, START1, -1));
+    }
+
+    @Test
+    public void case15() {
+        ConcurrentSequenceGenerator sequences = new ConcurrentSequenceGenerator();
+        Accumulator released = AccumulatorFactory.builder()
+                .onProcessFinalized(sequences::release)
+                .build()
+                .getInstance();
+        Long processId = counter.getAndIncrement();
+        released.acceptAll(List.of(new StateObject(processId, START1, sequences),
+                new StateObject(processId, MID1, sequences)));
+        released.drain(processId);
+        Assertions.assertEquals(1, sequences.size());
+
+        released.accept(new StateObject(processId, FINAL1, sequences));
+        released.drain(processId);
+        Assertions.assertEquals(0, sequences.size());
+    }
+
     private void checkStates(List<StateObject> stateObjects, State... expected) {
         State[] actual = stateObjects.stream()
                 .map(StateObject::getState)
@@ -0,0 +1,140 @@
+package com.vk.dwzkf.test.impl;
+
+import com.vk.dwzkf.test.StateObject;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow;
+
+import static com.vk.dwzkf.test.State.*;
+
+/**
+ * @since 16.10.2026
+ */
+public class AccumulatorPublisherTest {
+    private final AccumulatorPublisher publisher = new AccumulatorPublisher(new AccumulatorImpl(), Runnable::run);
+
+    @Test
+    public void drainsOnlyOnDemand() {
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.subscribe(subscriber);
+        publisher.acceptAll(List.of(new StateObject(1, START1, 1), new StateObject(2, START2, 1),
+                new StateObject(3, START1, 1)));
+        Assertions.assertTrue(subscriber.items.isEmpty());
+
+        subscriber.subscription.request(1);
+        Assertions.assertEquals(List.of(List.of(1L)), processIds(subscriber.items));
+
+        // не выданный процесс продолжает копить уведомления до спроса
+        publisher.accept(new StateObject(2, MID1, 2));
+        subscriber.subscription.request(5);
+        Assertions.assertEquals(List.of(List.of(1L), List.of(2L, 2L), List.of(3L)), processIds(subscriber.items));
+        Assertions.assertEquals(List.of(1, 2), seqNos(subscriber.items.get(1)));
+    }
+
+    @Test
+    public void processWithNothingToEmitDoesNotConsumeDemand() {
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.subscribe(subscriber);
+        subscriber.subscription.request(1);
+        publisher.accept(new StateObject(1, MID1, 2));
+        Assertions.assertTrue(subscriber.items.isEmpty());
+
+        publisher.accept(new StateObject(1, START1, 1));
+        Assertions.assertEquals(List.of(List.of(1L, 1L)), processIds(subscriber.items));
+    }
+
+    @Test
+    public void completesAfterReadyProcessesAreDelivered() {
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.subscribe(subscriber);
+        publisher.accept(new StateObject(1, START1, 1));
+        publisher.close();
+        Assertions.assertFalse(subscriber.completed);
+
+        subscriber.subscription.request(1);
+        Assertions.assertEquals(1, subscriber.items.size());
+        Assertions.assertTrue(subscriber.completed);
+    }
+
+    @Test
+    public void rejectsSecondSubscriber() {
+        publisher.subscribe(new RecordingSubscriber());
+        RecordingSubscriber second = new RecordingSubscriber();
+        publisher.subscribe(second);
+        Assertions.assertTrue(second.error instanceof IllegalStateException);
+    }
+
+    @Test
+    public void rejectsNonPositiveRequest() {
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.subscribe(subscriber);
+        subscriber.subscription.request(0);
+        Assertions.assertTrue(subscriber.error instanceof IllegalArgumentException);
+    }
+
+    @Test
+    public void failingDrainTerminatesStream() {
+        AccumulatorPublisher failing = new AccumulatorPublisher(new AccumulatorImpl() {
+            @Override
+            public List<StateObject> drain(Long processId) {
+                throw new IllegalStateException("delegate is closed");
+            }
+        }, Runnable::run);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        failing.subscribe(subscriber);
+        subscriber.subscription.request(2);
+        failing.accept(new StateObject(1, START1, 1));
+        Assertions.assertTrue(subscriber.error instanceof IllegalStateException);
+
+        // поток завершен: новые уведомления подписчику больше не выдаются
+        failing.accept(new StateObject(2, START1, 1));
+        Assertions.assertTrue(subscriber.items.isEmpty());
+        Assertions.assertFalse(subscriber.completed);
+    }
+
+    private static List<List<Long>> processIds(List<List<StateObject>> items) {
+        List<List<Long>> result = new ArrayList<>();
+        for (List<StateObject> item : items) {
+            List<Long> processIds = new ArrayList<>();
+            item.forEach(stateObject -> processIds.add(stateObject.getProcessId()));
+            result.add(processIds);
+        }
+        return result;
+    }
+
+    private static List<Integer> seqNos(List<StateObject> stateObjects) {
+        List<Integer> result = new ArrayList<>();
+        stateObjects.forEach(stateObject -> result.add(stateObject.getSeqNo()));
+        return result;
+    }
+
+    private static final class RecordingSubscriber implements Flow.Subscriber<List<StateObject>> {
+        private final List<List<StateObject>> items = new ArrayList<>();
+        private Flow.Subscription subscription;
+        private Throwable error;
+        private boolean completed;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(List<StateObject> item) {
+            items.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.vk.dwzkf.test.impl;
+
+import com.vk.dwzkf.test.AccumulatorConfig;
+import com.vk.dwzkf.test.State;
+import com.vk.dwzkf.test.StateObject;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import static com.vk.dwzkf.test.State.*;
+
+/**
+ * @since 16.10.2026
+ */
+public class ActorAccumulatorTest {
+
+    @Test
+    public void rejectedTaskFailsSendInsteadOfHanging() {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        executor.shutdown();
+        try (ActorAccumulator accumulator = new ActorAccumulator(AccumulatorConfig.DEFAULT, executor)) {
+            Assertions.assertThrows(RejectedExecutionException.class,
+                    () -> accumulator.accept(new StateObject(1, START1, 1)));
+            // счетчик задач откатан, поэтому повторная отправка снова пробует запуск, а не ждет его
+            Assertions.assertThrows(RejectedExecutionException.class, () -> accumulator.drain(1L));
+            Assertions.assertTrue(accumulator.drainAsync(1, stateObject -> {
+            }).isCompletedExceptionally());
+        }
+    }
+
+    @Test
+    public void failedMessageDoesNotStopActor() {
+        try (ActorAccumulator accumulator = new ActorAccumulator(AccumulatorConfig.DEFAULT)) {
+            accumulator.accept(new PoisonStateObject(7, START1, 1));
+            accumulator.acceptAll(List.of(new StateObject(7, START1, 1), new PoisonStateObject(7, MID1, 2)));
+            accumulator.accept(new StateObject(8, START1, 1));
+            Assertions.assertThrows(IllegalStateException.class, () -> accumulator.drain(8, stateObject -> {
+                throw new IllegalStateException("sink failed");
+            }));
+
+            Assertions.assertEquals(1, accumulator.drain(7L).size());
+            Assertions.assertFalse(accumulator.drainReady().containsKey(7L));
+        }
+    }
+
+    @Test
+    public void rejectsMessagesAfterClose() {
+        ActorAccumulator accumulator = new ActorAccumulator(AccumulatorConfig.DEFAULT, Runnable::run);
+        accumulator.accept(new StateObject(1, START1, 1));
+        accumulator.close();
+
+        Assertions.assertThrows(IllegalStateException.class, () -> accumulator.accept(new StateObject(1, MID1, 2)));
+        Assertions.assertThrows(IllegalStateException.class, () -> accumulator.drain(1L));
+    }
+
+    /**
+     * Уведомление, на котором падает разбор в потоке актора
+     */
+    private static final class PoisonStateObject extends StateObject {
+        private PoisonStateObject(long processId, State state, int seqNo) {
+            super(processId, state, seqNo);
+        }
+
+        @Override
+        public int stateOrdinal() {
+            throw new IllegalArgumentException("poison");
+        }
+    }
+}
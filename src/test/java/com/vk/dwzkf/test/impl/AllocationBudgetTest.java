@@ -0,0 +1,109 @@
+package com.vk.dwzkf.test.impl;
+
+import com.vk.dwzkf.test.AccumulatorConfig;
+import com.vk.dwzkf.test.AccumulatorFactory;
+import com.vk.dwzkf.test.StateObject;
+import com.vk.dwzkf.test.load.LoadGenerator;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Properties;
+import java.util.function.Consumer;
+
+/**
+ * Проверка выделения памяти {@link AccumulatorImpl} против бюджета из {@code allocation-budget.properties}.
+ * <p>
+ * Байты считаются по текущему потоку через {@link com.sun.management.ThreadMXBean#getThreadAllocatedBytes(long)},
+ * из нескольких прогонов после прогрева берется наименьший результат. В бюджет входит и создание буферов
+ * процессов, разнесенное по их уведомлениям. Запускается отдельной задачей {@code gradle allocationTest}
+ * @since 16.10.2026
+ */
+@Tag("allocation")
+public class AllocationBudgetTest {
+    private static final int PROCESSES = 10_000;
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int MEASURED_ROUNDS = 5;
+
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final AccumulatorConfig config = AccumulatorFactory.builder()
+            .expectedProcesses(PROCESSES)
+            .build()
+            .getConfig();
+    private final List<StateObject> notifications = LoadGenerator.builder()
+            .seed(24)
+            .walkLength(4, 12)
+            .concurrentProcesses(64)
+            .reorderDistance(16)
+            .build()
+            .generate(1, PROCESSES);
+    private final Consumer<StateObject> sink = this::consume;
+    private long emitted;
+
+    @Test
+    public void acceptStaysWithinBudget() {
+        assertWithinBudget("accumulatorImpl.accept.bytesPerOp", measure(true));
+    }
+
+    @Test
+    public void drainStaysWithinBudget() {
+        assertWithinBudget("accumulatorImpl.drain.bytesPerEmitted", measure(false));
+    }
+
+    /**
+     * @param accept {@code true} - байт на {@code accept}, иначе байт на выданное {@code drain} уведомление
+     */
+    private double measure(boolean accept) {
+        Assertions.assertTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+        long threadId = Thread.currentThread().getId();
+        double best = Double.MAX_VALUE;
+        for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+            AccumulatorImpl accumulator = new AccumulatorImpl(config);
+            long before = threads.getThreadAllocatedBytes(threadId);
+            for (StateObject stateObject : notifications) {
+                accumulator.accept(stateObject);
+            }
+            long accepted = threads.getThreadAllocatedBytes(threadId);
+            emitted = 0;
+            for (long processId = 1; processId <= PROCESSES; processId++) {
+                accumulator.drain(processId, sink);
+            }
+            long drained = threads.getThreadAllocatedBytes(threadId);
+            Assertions.assertEquals(notifications.size(), emitted);
+            if (round >= WARMUP_ROUNDS) {
+                double perOp = accept
+                        ? (double) (accepted - before) / notifications.size()
+                        : (double) (drained - accepted) / emitted;
+                best = Math.min(best, perOp);
+            }
+        }
+        return best;
+    }
+
+    private void assertWithinBudget(String key, double actual) {
+        double budget = Double.parseDouble(loadBudget().getProperty(key));
+        Assertions.assertTrue(actual <= budget,
+                String.format("%s: %.1f bytes allocated, budget %.1f", key, actual, budget));
+    }
+
+    private Properties loadBudget() {
+        Properties budget = new Properties();
+        try (InputStream in = getClass().getResourceAsStream("/allocation-budget.properties")) {
+            Assertions.assertNotNull(in, "allocation-budget.properties not found");
+            budget.load(in);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return budget;
+    }
+
+    private void consume(StateObject stateObject) {
+        emitted++;
+    }
+}
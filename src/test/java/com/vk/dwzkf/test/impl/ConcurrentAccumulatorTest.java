@@ -0,0 +1,281 @@
+package com.vk.dwzkf.test.impl;
+
+import com.vk.dwzkf.test.Accumulator;
+import com.vk.dwzkf.test.AccumulatorFactory;
+import com.vk.dwzkf.test.State;
+import com.vk.dwzkf.test.StateObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.vk.dwzkf.test.State.*;
+
+/**
+ * Проверки потокобезопасных реализаций {@link Accumulator}
+ * @since 16.10.2026
+ */
+public class ConcurrentAccumulatorTest {
+    private static final AtomicLong counter = new AtomicLong(1_000_000);
+    private static final State[] WALK = {START1, MID1, MID2, MID1, MID2, FINAL1};
+    private static final int THREADS = 8;
+    private static final int PROCESSES = 2_000;
+
+    /**
+     * Созданный в тесте аккумулятор, закрывается после теста
+     */
+    private Accumulator accumulator;
+
+    @AfterEach
+    public void closeAccumulator() {
+        if (accumulator != null) {
+            accumulator.close();
+        }
+    }
+
+    static Stream<Supplier<Accumulator>> accumulators() {
+        return Stream.of(StripedAccumulator::new, LockFreeAccumulator::new, ActorAccumulator::new,
+                () -> AccumulatorFactory.builder()
+                        .engine(AccumulatorFactory.Engine.SHARDED)
+                        .shards(4)
+                        .ringCapacity(1024)
+                        .build()
+                        .getInstance());
+    }
+
+    @ParameterizedTest
+    @MethodSource("accumulators")
+    public void concurrentAcceptKeepsEveryNotification(Supplier<Accumulator> supplier) throws Exception {
+        accumulator = supplier.get();
+        List<Long> processIds = newProcessIds();
+        List<StateObject> notifications = shuffledWalks(processIds);
+
+        runInParallel(notifications, accumulator, new AtomicBoolean());
+
+        for (Long processId : processIds) {
+            List<Integer> seqNos = accumulator.drain(processId).stream()
+                    .map(StateObject::getSeqNo)
+                    .collect(Collectors.toList());
+            Assertions.assertEquals(List.of(1, 2, 3, 4, 5, 6), seqNos, "process " + processId);
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("accumulators")
+    public void concurrentBatchedAcceptKeepsEveryNotification(Supplier<Accumulator> supplier) throws Exception {
+        accumulator = supplier.get();
+        List<Long> processIds = newProcessIds();
+        List<StateObject> notifications = shuffledWalks(processIds);
+
+        runInParallel(notifications, accumulator, new AtomicBoolean(), 100);
+
+        for (Long processId : processIds) {
+            List<Integer> seqNos = accumulator.drain(processId).stream()
+                    .map(StateObject::getSeqNo)
+                    .collect(Collectors.toList());
+            Assertions.assertEquals(List.of(1, 2, 3, 4, 5, 6), seqNos, "process " + processId);
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("accumulators")
+    public void concurrentDrainEmitsConsistentSequences(Supplier<Accumulator> supplier) throws Exception {
+        accumulator = supplier.get();
+        List<Long> processIds = newProcessIds();
+        List<StateObject> notifications = shuffledWalks(processIds);
+        List<List<StateObject>> drained = new ArrayList<>();
+        for (int i = 0; i < PROCESSES; i++) {
+            drained.add(new ArrayList<>());
+        }
+
+        AtomicBoolean done = new AtomicBoolean();
+        Thread drainer = new Thread(() -> {
+            while (!done.get()) {
+                for (int i = 0; i < PROCESSES; i++) {
+                    drained.get(i).addAll(accumulator.drain(processIds.get(i)));
+                }
+            }
+        });
+        drainer.start();
+        runInParallel(notifications, accumulator, done);
+        drainer.join();
+        for (int i = 0; i < PROCESSES; i++) {
+            drained.get(i).addAll(accumulator.drain(processIds.get(i)));
+            checkWalk(drained.get(i));
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("accumulators")
+    public void concurrentDrainReadyEmitsConsistentSequences(Supplier<Accumulator> supplier) throws Exception {
+        accumulator = supplier.get();
+        List<Long> processIds = newProcessIds();
+        List<StateObject> notifications = shuffledWalks(processIds);
+        Map<Long, List<StateObject>> drained = new HashMap<>();
+
+        AtomicBoolean done = new AtomicBoolean();
+        Thread drainer = new Thread(() -> {
+            while (!done.get()) {
+                accumulator.drainReady().forEach((processId, stateObjects) ->
+                        drained.computeIfAbsent(processId, id -> new ArrayList<>()).addAll(stateObjects));
+            }
+        });
+        drainer.start();
+        runInParallel(notifications, accumulator, done);
+        drainer.join();
+        accumulator.drainReady().forEach((processId, stateObjects) ->
+                drained.computeIfAbsent(processId, id -> new ArrayList<>()).addAll(stateObjects));
+        Assertions.assertEquals(PROCESSES, drained.size());
+        drained.values().forEach(ConcurrentAccumulatorTest::checkWalk);
+    }
+
+    @ParameterizedTest
+    @MethodSource("accumulators")
+    public void finalizedProcessIgnoresLateNotifications(Supplier<Accumulator> supplier) {
+        accumulator = supplier.get();
+        Long processId = counter.getAndIncrement();
+        accumulator.acceptAll(List.of(new StateObject(processId, START1), new StateObject(processId, FINAL2)));
+        Assertions.assertEquals(2, accumulator.drain(processId).size());
+
+        accumulator.accept(new StateObject(processId, FINAL1));
+        accumulator.acceptAll(List.of(new StateObject(processId, START1), new StateObject(processId, MID1)));
+        Assertions.assertTrue(accumulator.drain(processId).isEmpty());
+        Assertions.assertTrue(accumulator.drainReady().isEmpty());
+    }
+
+    @ParameterizedTest
+    @MethodSource("accumulators")
+    public void dirtyListenerSkipsRejectedNotifications(Supplier<Accumulator> supplier) {
+        accumulator = supplier.get();
+        Queue<Long> dirty = new ConcurrentLinkedQueue<>();
+        ((DirtyTracking) accumulator).setDirtyListener(dirty::add);
+        Long processId = counter.getAndIncrement();
+
+        accumulator.accept(new StateObject(processId, START1, 1));
+        // drain ждет разбора уже отправленных уведомлений, в том числе у асинхронных реализаций
+        Assertions.assertEquals(1, accumulator.drain(processId).size());
+        Assertions.assertTrue(dirty.contains(processId));
+
+        dirty.clear();
+        accumulator.accept(new StateObject(processId, START2, 2));
+        Assertions.assertTrue(accumulator.drain(processId).isEmpty());
+        Assertions.assertTrue(dirty.isEmpty());
+
+        accumulator.acceptAll(List.of(new StateObject(processId, MID1, 3), new StateObject(processId, FINAL1, 4)));
+        Assertions.assertEquals(2, accumulator.drain(processId).size());
+        Assertions.assertTrue(dirty.contains(processId));
+
+        dirty.clear();
+        accumulator.accept(new StateObject(processId, MID2, 5));
+        Assertions.assertTrue(accumulator.drain(processId).isEmpty());
+        Assertions.assertTrue(dirty.isEmpty());
+    }
+
+    private static void checkWalk(List<StateObject> stateObjects) {
+        Assertions.assertFalse(stateObjects.isEmpty());
+        Set<Integer> seqNos = new HashSet<>();
+        State previous = null;
+        for (StateObject stateObject : stateObjects) {
+            Assertions.assertTrue(seqNos.add(stateObject.getSeqNo()), "duplicate " + stateObject.getSeqNo());
+            Assertions.assertTrue(isAllowed(previous, stateObject.getState()),
+                    previous + " -> " + stateObject.getState());
+            previous = stateObject.getState();
+        }
+        Assertions.assertEquals(FINAL1, previous);
+    }
+
+    private static boolean isAllowed(State from, State to) {
+        if (from == null) {
+            return to == START1 || to == START2;
+        }
+        switch (from) {
+            case START1:
+            case START2:
+                return to == MID1 || to == FINAL1 || to == FINAL2;
+            case MID1:
+                return to == MID2 || to == FINAL1 || to == FINAL2;
+            case MID2:
+                return to == MID1 || to == FINAL1 || to == FINAL2;
+            default:
+                return false;
+        }
+    }
+
+    private static void runInParallel(List<StateObject> notifications, Accumulator accumulator, AtomicBoolean done)
+            throws Exception {
+        runInParallel(notifications, accumulator, done, 1);
+    }
+
+    /**
+     * Раздает уведомления {@link #THREADS} потокам, при {@code batchSize > 1} через {@link Accumulator#acceptAll(List)}
+     */
+    private static void runInParallel(List<StateObject> notifications, Accumulator accumulator, AtomicBoolean done,
+                                      int batchSize) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = thread * batchSize; i < notifications.size(); i += THREADS * batchSize) {
+                        if (batchSize == 1) {
+                            accumulator.accept(notifications.get(i));
+                        } else {
+                            accumulator.acceptAll(notifications.subList(i, Math.min(i + batchSize, notifications.size())));
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            done.set(true);
+            executor.shutdownNow();
+        }
+    }
+
+    private static List<Long> newProcessIds() {
+        List<Long> processIds = new ArrayList<>();
+        for (int i = 0; i < PROCESSES; i++) {
+            processIds.add(counter.getAndIncrement());
+        }
+        return processIds;
+    }
+
+    private static List<StateObject> shuffledWalks(List<Long> processIds) {
+        List<StateObject> notifications = new ArrayList<>();
+        for (Long processId : processIds) {
+            for (State state : WALK) {
+                notifications.add(new StateObject(processId, state));
+            }
+        }
+        Collections.shuffle(notifications, new Random(42));
+        return notifications;
+    }
+}
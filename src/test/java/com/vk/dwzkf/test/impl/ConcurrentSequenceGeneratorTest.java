@@ -0,0 +1,71 @@
+package com.vk.dwzkf.test.impl;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @since 16.10.2026
+ */
+public class ConcurrentSequenceGeneratorTest {
+    private final AtomicLong clock = new AtomicLong();
+    private final ConcurrentSequenceGenerator generator =
+            new ConcurrentSequenceGenerator(Duration.ofNanos(100), clock::get);
+
+    @Test
+    public void concurrentNextIsUniqueAndDense() throws Exception {
+        ConcurrentSequenceGenerator generator = new ConcurrentSequenceGenerator();
+        int threads = 8;
+        int perThread = 10_000;
+        ConcurrentHashMap<Integer, Boolean> seen = new ConcurrentHashMap<>();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        Assertions.assertNull(seen.put(generator.next(7L), Boolean.TRUE));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        Assertions.assertEquals(threads * perThread, seen.size());
+        Assertions.assertEquals(threads * perThread + 1, generator.next(7L));
+    }
+
+    @Test
+    public void releaseRestartsNumbering() {
+        Assertions.assertEquals(1, generator.next(1L));
+        Assertions.assertEquals(2, generator.next(1L));
+        generator.release(1L);
+        Assertions.assertEquals(0, generator.size());
+        Assertions.assertEquals(1, generator.next(1L));
+    }
+
+    @Test
+    public void idleSequencesAreEvicted() {
+        generator.next(1L);
+        generator.next(2L);
+        clock.set(60);
+        generator.next(2L);
+        clock.set(130);
+        generator.next(3L);
+        Assertions.assertEquals(2, generator.size());
+        Assertions.assertEquals(1, generator.next(1L));
+        Assertions.assertEquals(3, generator.next(2L));
+    }
+}
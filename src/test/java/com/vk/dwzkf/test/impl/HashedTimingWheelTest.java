@@ -0,0 +1,79 @@
+package com.vk.dwzkf.test.impl;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @since 16.10.2026
+ */
+public class HashedTimingWheelTest {
+    private static final long TICK = 10;
+
+    @Test
+    public void expiresOnTheFirstTickAfterDeadline() {
+        HashedTimingWheel wheel = new HashedTimingWheel(TICK, 4, 0);
+        wheel.schedule(1, 0, 25);
+        wheel.schedule(2, 5, 10);
+
+        Assertions.assertEquals(List.of(), advance(wheel, 19));
+        Assertions.assertEquals(List.of(2L), advance(wheel, 20));
+        Assertions.assertEquals(List.of(), advance(wheel, 29));
+        Assertions.assertEquals(List.of(1L), advance(wheel, 30));
+    }
+
+    @Test
+    public void deadlineBeyondOneRoundWaitsForItsRound() {
+        HashedTimingWheel wheel = new HashedTimingWheel(TICK, 4, 0);
+        wheel.schedule(1, 0, 10);
+        wheel.schedule(2, 0, 90);
+
+        Assertions.assertEquals(List.of(1L), advance(wheel, 10));
+        Assertions.assertEquals(List.of(), advance(wheel, 89));
+        Assertions.assertEquals(List.of(2L), advance(wheel, 90));
+    }
+
+    @Test
+    public void cancelledTimeoutNeverExpires() {
+        HashedTimingWheel wheel = new HashedTimingWheel(TICK, 4, 0);
+        HashedTimingWheel.Timeout beforePlaced = wheel.schedule(1, 0, 20);
+        HashedTimingWheel.Timeout placed = wheel.schedule(2, 0, 20);
+        wheel.schedule(3, 0, 20);
+        Assertions.assertTrue(beforePlaced.cancel());
+
+        Assertions.assertEquals(List.of(), advance(wheel, 10));
+        Assertions.assertTrue(placed.cancel());
+        Assertions.assertFalse(placed.cancel());
+        Assertions.assertEquals(List.of(3L), advance(wheel, 40));
+    }
+
+    @Test
+    public void expiredTimeoutCannotBeCancelled() {
+        HashedTimingWheel wheel = new HashedTimingWheel(TICK, 4, 0);
+        HashedTimingWheel.Timeout timeout = wheel.schedule(1, 0, 10);
+
+        Assertions.assertEquals(List.of(1L), advance(wheel, 10));
+        Assertions.assertFalse(timeout.cancel());
+    }
+
+    @Test
+    public void bucketExpiresInBulk() {
+        HashedTimingWheel wheel = new HashedTimingWheel(TICK, 4, 0);
+        for (long processId = 1; processId <= 1000; processId++) {
+            wheel.schedule(processId, 0, 30);
+        }
+
+        Assertions.assertEquals(1000, wheel.advance(30, timeout -> {
+        }));
+        Assertions.assertEquals(0, wheel.advance(100, timeout -> {
+        }));
+    }
+
+    private static List<Long> advance(HashedTimingWheel wheel, long nowNanos) {
+        List<Long> expired = new ArrayList<>();
+        wheel.advance(nowNanos, timeout -> expired.add(timeout.getProcessId()));
+        return expired;
+    }
+}
@@ -0,0 +1,96 @@
+package com.vk.dwzkf.test.impl;
+
+import com.vk.dwzkf.test.AccumulatorFactory;
+import com.vk.dwzkf.test.AccumulatorMetrics;
+import com.vk.dwzkf.test.StateObject;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.vk.dwzkf.test.State.*;
+
+/**
+ * @since 16.10.2026
+ */
+public class InMemoryMetricsTest {
+    private final InMemoryMetrics metrics = new InMemoryMetrics();
+    private final AccumulatorImpl accumulator = new AccumulatorImpl(AccumulatorFactory.builder()
+            .metrics(metrics)
+            .build()
+            .getConfig());
+
+    @Test
+    public void countsEveryAcceptOutcome() {
+        accumulator.acceptAll(List.of(new StateObject(1, START1, 1), new StateObject(1, MID1, 2),
+                new StateObject(1, MID1, 2), new StateObject(2, MID1, 5)));
+        Assertions.assertEquals(3, metrics.getAccepted());
+        Assertions.assertEquals(1, metrics.getDuplicates());
+        Assertions.assertEquals(2, metrics.getOpenProcesses());
+
+        accumulator.drain(1L);
+        accumulator.accept(new StateObject(1, START2, 3));
+        Assertions.assertEquals(1, metrics.getRejectedStale());
+
+        accumulator.accept(new StateObject(1, FINAL1, 4));
+        accumulator.drain(1L);
+        // процесс уже вытеснен, опоздавшее уведомление отбрасывается до буфера
+        accumulator.accept(new StateObject(1, MID2, 5));
+        Assertions.assertEquals(1, metrics.getRejectedAfterFinal());
+        Assertions.assertEquals(1, metrics.getFinalizedProcesses());
+        Assertions.assertEquals(1, metrics.getOpenProcesses());
+    }
+
+    @Test
+    public void recordsDrainDistributions() {
+        accumulator.acceptAll(List.of(new StateObject(1, MID1, 2), new StateObject(1, MID2, 3)));
+        accumulator.drain(1L);
+        accumulator.acceptAll(List.of(new StateObject(1, FINAL1, 4), new StateObject(1, START1, 1)));
+        accumulator.drain(1L);
+
+        // до START процесс ничего не выдает, оба уведомления ждут в буфере
+        Assertions.assertEquals(2, metrics.getEmittedPerDrain().getCount());
+        Assertions.assertEquals(0, metrics.getEmittedPerDrain().getValueAtPercentile(50));
+        Assertions.assertEquals(4, metrics.getEmittedPerDrain().getValueAtPercentile(100));
+        Assertions.assertEquals(2, metrics.getPendingPerProcess().getMax());
+        Assertions.assertEquals(0, metrics.getPendingPerProcess().getValueAtPercentile(50));
+        Assertions.assertEquals(2, metrics.getDrainLatencyNanos().getCount());
+    }
+
+    @Test
+    public void histogramPercentileIsUpperBoundOfBucket() {
+        InMemoryMetrics.Histogram histogram = new InMemoryMetrics().getEmittedPerDrain();
+        Assertions.assertEquals(0, histogram.getValueAtPercentile(99));
+        for (int value = 1; value <= 100; value++) {
+            histogram.record(value);
+        }
+        Assertions.assertEquals(50.5, histogram.getMean(), 1e-9);
+        Assertions.assertEquals(63, histogram.getValueAtPercentile(50));
+        Assertions.assertEquals(100, histogram.getValueAtPercentile(100));
+        Assertions.assertEquals(1, histogram.getValueAtPercentile(0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> histogram.getValueAtPercentile(101));
+    }
+
+    @Test
+    public void disabledMetricsAreNeverCalled() {
+        AccumulatorMetrics failing = new AccumulatorMetrics() {
+            @Override
+            public boolean isEnabled() {
+                return false;
+            }
+
+            @Override
+            public void accepted() {
+                throw new AssertionError();
+            }
+
+            @Override
+            public void drained(int emitted, int pending, long latencyNanos) {
+                throw new AssertionError();
+            }
+        };
+        AccumulatorImpl disabled = new AccumulatorImpl(AccumulatorFactory.builder().metrics(failing).build().getConfig());
+        disabled.accept(new StateObject(1, START1, 1));
+        Assertions.assertEquals(1, disabled.drain(1L).size());
+    }
+}
@@ -0,0 +1,84 @@
+package com.vk.dwzkf.test.impl;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @since 16.10.2026
+ */
+public class LongObjectMapTest {
+
+    @Test
+    public void behavesLikeHashMap() {
+        LongObjectMap<Long> map = new LongObjectMap<>();
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 200_000; i++) {
+            // маленький диапазон ключей дает длинные цепочки и частые удаления из их середины
+            long key = random.nextInt(2_000) - 1_000;
+            int operation = random.nextInt(3);
+            if (operation == 0) {
+                Assertions.assertEquals(expected.put(key, (long) i), map.put(key, (long) i));
+            } else if (operation == 1) {
+                Assertions.assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                Assertions.assertEquals(expected.get(key), map.get(key));
+            }
+            Assertions.assertEquals(expected.size(), map.size());
+        }
+        for (Map.Entry<Long, Long> entry : expected.entrySet()) {
+            Assertions.assertEquals(entry.getValue(), map.get(entry.getKey()));
+        }
+    }
+
+    @Test
+    public void computeIfAbsentSkipsNullValues() {
+        LongObjectMap<String> map = new LongObjectMap<>();
+        Assertions.assertNull(map.computeIfAbsent(5, key -> null));
+        Assertions.assertTrue(map.isEmpty());
+        Assertions.assertEquals("5", map.computeIfAbsent(5, String::valueOf));
+        Assertions.assertEquals("5", map.computeIfAbsent(5, key -> "other"));
+    }
+
+    @Test
+    public void concurrentComputeIfAbsentCreatesSingleValue() throws Exception {
+        ConcurrentLongObjectMap<Object> map = new ConcurrentLongObjectMap<>(16, 4);
+        int threads = 8;
+        int keys = 50_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<Object[]>> futures = new ArrayList<>();
+        Object[] first;
+        try {
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    Object[] seen = new Object[keys];
+                    for (int key = 0; key < keys; key++) {
+                        seen[key] = map.computeIfAbsent(key, k -> new Object());
+                    }
+                    return seen;
+                }));
+            }
+            first = futures.get(0).get(30, TimeUnit.SECONDS);
+            for (Future<Object[]> future : futures) {
+                Assertions.assertArrayEquals(first, future.get(30, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        Assertions.assertEquals(keys, map.size());
+        for (int key = 0; key < keys; key += 2) {
+            Assertions.assertSame(first[key], map.remove(key));
+        }
+        Assertions.assertEquals(keys / 2, map.size());
+    }
+}
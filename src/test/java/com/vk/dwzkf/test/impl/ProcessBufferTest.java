@@ -0,0 +1,103 @@
+package com.vk.dwzkf.test.impl;
+
+import com.vk.dwzkf.test.State;
+import com.vk.dwzkf.test.StateObject;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.vk.dwzkf.test.State.*;
+
+/**
+ * @since 16.10.2026
+ */
+public class ProcessBufferTest {
+    private final ProcessBuffer buffer = new ProcessBuffer(1);
+    private int seqNo;
+
+    @Test
+    public void rejectsWhatCanNeverBeEmitted() {
+        accept(START1);
+        Assertions.assertEquals(ProcessBuffer.AcceptResult.DUPLICATE,
+                buffer.accept(new StateObject(1, START1, seqNo)));
+        drain();
+        Assertions.assertEquals(ProcessBuffer.AcceptResult.STALE, accept(START2));
+        Assertions.assertEquals(ProcessBuffer.AcceptResult.ACCEPTED, accept(FINAL2));
+        drain();
+        Assertions.assertEquals(ProcessBuffer.AcceptResult.AFTER_FINAL, accept(MID1));
+        Assertions.assertEquals(0, buffer.pendingCount());
+    }
+
+    @Test
+    public void hugeSeqNosAreAcceptedWithoutDenseStorage() {
+        for (int i = 0; i < 8; i++) {
+            Assertions.assertEquals(ProcessBuffer.AcceptResult.ACCEPTED,
+                    buffer.accept(new StateObject(1, MID1, Integer.MAX_VALUE - i)));
+        }
+        Assertions.assertEquals(ProcessBuffer.AcceptResult.DUPLICATE,
+                buffer.accept(new StateObject(1, MID1, Integer.MAX_VALUE)));
+        Assertions.assertEquals(8, buffer.pendingCount());
+    }
+
+    @Test
+    public void failedSinkKeepsNotificationForNextDrain() {
+        accept(START1);
+        accept(FINAL1);
+        Assertions.assertThrows(IllegalStateException.class, () -> buffer.drain(stateObject -> {
+            throw new IllegalStateException("sink failed");
+        }));
+        Assertions.assertEquals(2, buffer.pendingCount());
+        List<StateObject> drained = drain();
+        Assertions.assertEquals(2, drained.size());
+        Assertions.assertEquals(FINAL1, drained.get(1).getState());
+    }
+
+    @Test
+    public void prunesDominatedNotificationsAfterDrain() {
+        for (int i = 0; i < 100; i++) {
+            accept(FINAL2);
+            accept(FINAL1);
+            accept(MID2);
+        }
+        Assertions.assertTrue(drain().isEmpty());
+        // один FINAL1 и все MID2: пока процесс не начат, любой из них может понадобиться
+        Assertions.assertEquals(101, buffer.pendingCount());
+
+        accept(START2);
+        accept(START1);
+        accept(START1);
+        accept(MID1);
+        List<StateObject> drained = drain();
+        Assertions.assertEquals(List.of(START1, MID1, MID2, FINAL1), states(drained));
+        Assertions.assertEquals(302, (int) drained.get(0).getSeqNo());
+        Assertions.assertEquals(2, (int) drained.get(3).getSeqNo());
+        Assertions.assertEquals(0, buffer.pendingCount());
+    }
+
+    @Test
+    public void prunesStartsLeftAfterProcessStarted() {
+        accept(START1);
+        accept(START2);
+        accept(START1);
+        Assertions.assertEquals(List.of(START1), states(drain()));
+        Assertions.assertEquals(0, buffer.pendingCount());
+    }
+
+    private ProcessBuffer.AcceptResult accept(State state) {
+        return buffer.accept(new StateObject(1, state, ++seqNo));
+    }
+
+    private List<StateObject> drain() {
+        List<StateObject> result = new ArrayList<>();
+        buffer.drain(result::add);
+        return result;
+    }
+
+    private static List<State> states(List<StateObject> stateObjects) {
+        List<State> states = new ArrayList<>();
+        stateObjects.forEach(stateObject -> states.add(stateObject.getState()));
+        return states;
+    }
+}
@@ -0,0 +1,71 @@
+package com.vk.dwzkf.test.impl;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @since 16.10.2026
+ */
+public class RingBufferTest {
+
+    @Test
+    public void rejectsOfferWhenFullAndReusesSlots() {
+        RingBuffer<Integer> ring = new RingBuffer<>(3);
+        Assertions.assertEquals(4, ring.capacity());
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 4; i++) {
+                Assertions.assertTrue(ring.offer(round * 4 + i));
+            }
+            Assertions.assertFalse(ring.offer(-1));
+            for (int i = 0; i < 4; i++) {
+                int value = ring.poll();
+                Assertions.assertEquals(round * 4 + i, value);
+            }
+            Assertions.assertNull(ring.poll());
+            Assertions.assertTrue(ring.isEmpty());
+        }
+    }
+
+    @Test
+    public void concurrentProducersLoseNothing() throws Exception {
+        RingBuffer<Integer> ring = new RingBuffer<>(64);
+        int producers = 4;
+        int perProducer = 50_000;
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    while (!ring.offer(producer * perProducer + i)) {
+                        Thread.onSpinWait();
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        int[] lastSeen = new int[producers];
+        Arrays.fill(lastSeen, -1);
+        int received = 0;
+        while (received < producers * perProducer) {
+            Integer value = ring.poll();
+            if (value == null) {
+                Thread.onSpinWait();
+                continue;
+            }
+            int producer = value / perProducer;
+            // порядок одного писателя сохраняется
+            Assertions.assertTrue(value % perProducer > lastSeen[producer]);
+            lastSeen[producer] = value % perProducer;
+            received++;
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assertions.assertNull(ring.poll());
+    }
+}
@@ -0,0 +1,31 @@
+package com.vk.dwzkf.test.impl;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @since 16.10.2026
+ */
+public class SeqNoSetTest {
+
+    @Test
+    public void detectsRepeatedNumbersAcrossRehash() {
+        SeqNoSet set = new SeqNoSet();
+        for (int seqNo = 1; seqNo <= 1_000; seqNo++) {
+            Assertions.assertTrue(set.add(seqNo * 7919));
+        }
+        for (int seqNo = 1; seqNo <= 1_000; seqNo++) {
+            Assertions.assertFalse(set.add(seqNo * 7919));
+        }
+        Assertions.assertEquals(1_000, set.size());
+    }
+
+    @Test
+    public void largeNumbersTakeOneSlot() {
+        SeqNoSet set = new SeqNoSet();
+        Assertions.assertTrue(set.add(Integer.MAX_VALUE));
+        Assertions.assertTrue(set.add(Integer.MAX_VALUE - 1));
+        Assertions.assertFalse(set.add(Integer.MAX_VALUE));
+        Assertions.assertEquals(2, set.size());
+    }
+}
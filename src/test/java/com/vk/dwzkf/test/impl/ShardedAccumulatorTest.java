@@ -0,0 +1,61 @@
+package com.vk.dwzkf.test.impl;
+
+import com.vk.dwzkf.test.AccumulatorFactory;
+import com.vk.dwzkf.test.State;
+import com.vk.dwzkf.test.StateObject;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.vk.dwzkf.test.State.*;
+
+/**
+ * @since 16.10.2026
+ */
+public class ShardedAccumulatorTest {
+
+    @Test
+    public void failedMessageDoesNotStopShard() {
+        try (ShardedAccumulator accumulator = newAccumulator()) {
+            accumulator.accept(new PoisonStateObject(7, START1, 1));
+            accumulator.acceptAll(List.of(new StateObject(7, START1, 1), new PoisonStateObject(7, MID1, 2)));
+            accumulator.accept(new StateObject(8, START1, 1));
+            Assertions.assertThrows(IllegalStateException.class, () -> accumulator.drain(8, stateObject -> {
+                throw new IllegalStateException("sink failed");
+            }));
+
+            Assertions.assertEquals(1, accumulator.drain(7L).size());
+            Assertions.assertFalse(accumulator.drainReady().containsKey(7L));
+        }
+    }
+
+    @Test
+    public void rejectsMessagesAfterClose() {
+        ShardedAccumulator accumulator = newAccumulator();
+        accumulator.accept(new StateObject(9, START1, 1));
+        accumulator.close();
+
+        Assertions.assertThrows(IllegalStateException.class, () -> accumulator.accept(new StateObject(9, MID1, 2)));
+        Assertions.assertThrows(IllegalStateException.class, () -> accumulator.drain(9L));
+        Assertions.assertThrows(IllegalStateException.class, accumulator::drainReady);
+    }
+
+    private static ShardedAccumulator newAccumulator() {
+        return new ShardedAccumulator(AccumulatorFactory.builder().shards(1).build().getConfig());
+    }
+
+    /**
+     * Уведомление, на котором падает разбор в потоке раздела
+     */
+    private static final class PoisonStateObject extends StateObject {
+        private PoisonStateObject(long processId, State state, int seqNo) {
+            super(processId, state, seqNo);
+        }
+
+        @Override
+        public int stateOrdinal() {
+            throw new IllegalArgumentException("poison");
+        }
+    }
+}
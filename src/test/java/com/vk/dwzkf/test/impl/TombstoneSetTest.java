@@ -0,0 +1,34 @@
+package com.vk.dwzkf.test.impl;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * @since 16.10.2026
+ */
+public class TombstoneSetTest {
+
+    @Test
+    public void behavesLikeHashSet() {
+        TombstoneSet tombstones = new TombstoneSet();
+        Set<Long> expected = new HashSet<>();
+        Random random = new Random(11);
+        for (int i = 0; i < 100_000; i++) {
+            // плотный диапазон переводит контейнеры в битовые карты, разреженный оставляет массивами
+            long processId = random.nextBoolean() ? random.nextInt(20_000) : random.nextLong();
+            Assertions.assertEquals(expected.add(processId), tombstones.add(processId));
+        }
+        Assertions.assertEquals(expected.size(), tombstones.size());
+        for (Long processId : expected) {
+            Assertions.assertTrue(tombstones.contains(processId));
+        }
+        for (int i = 0; i < 100_000; i++) {
+            long processId = random.nextInt(40_000) - 10_000;
+            Assertions.assertEquals(expected.contains(processId), tombstones.contains(processId));
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.vk.dwzkf.test.impl;
+
+import com.vk.dwzkf.test.StateObject;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static com.vk.dwzkf.test.State.*;
+
+/**
+ * @since 16.10.2026
+ */
+public class WindowedAccumulatorTest {
+    private static final Duration WINDOW = Duration.ofMillis(100);
+
+    /**
+     * Часы колеса, стоят на месте, пока тест их не сдвинет
+     */
+    private final AtomicLong clock = new AtomicLong();
+    private final BlockingQueue<Map.Entry<Long, List<Integer>>> delivered = new LinkedBlockingQueue<>();
+
+    @Test
+    public void drainsEachProcessWhenItsWindowExpires() throws Exception {
+        try (WindowedAccumulator accumulator = newAccumulator()) {
+            accumulator.acceptAll(List.of(new StateObject(1, START1, 1), new StateObject(2, START2, 1),
+                    new StateObject(1, MID1, 2)));
+            Assertions.assertTrue(delivered.isEmpty());
+
+            clock.addAndGet(WINDOW.toNanos() * 2);
+            Map<Long, List<Integer>> first = take(2);
+            Assertions.assertEquals(List.of(1, 2), first.get(1L));
+            Assertions.assertEquals(List.of(1), first.get(2L));
+
+            accumulator.acceptAll(List.of(new StateObject(1, FINAL1, 4), new StateObject(1, MID2, 3)));
+            Assertions.assertTrue(delivered.isEmpty());
+
+            clock.addAndGet(WINDOW.toNanos() * 2);
+            Assertions.assertEquals(Map.of(1L, List.of(3, 4)), take(1));
+        }
+    }
+
+    @Test
+    public void rejectsNotThreadSafeDelegate() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new WindowedAccumulator(new AccumulatorImpl(),
+                WINDOW, (processId, stateObjects) -> {
+        }));
+    }
+
+    private WindowedAccumulator newAccumulator() {
+        return new WindowedAccumulator(new StripedAccumulator(), WINDOW, WindowedAccumulator.DEFAULT_TICKS_PER_WINDOW,
+                (processId, stateObjects) -> delivered.add(Map.entry(processId, seqNos(stateObjects))), clock::get);
+    }
+
+    private Map<Long, List<Integer>> take(int count) throws InterruptedException {
+        Map<Long, List<Integer>> result = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            Map.Entry<Long, List<Integer>> entry = delivered.poll(5, TimeUnit.SECONDS);
+            Assertions.assertNotNull(entry, "window did not expire");
+            result.put(entry.getKey(), entry.getValue());
+        }
+        return result;
+    }
+
+    private static List<Integer> seqNos(List<StateObject> stateObjects) {
+        return stateObjects.stream().map(StateObject::getSeqNo).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,222 @@
+package com.vk.dwzkf.test.load;
+
+import com.vk.dwzkf.test.State;
+import com.vk.dwzkf.test.StateObject;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+
+/**
+ * Генератор потока уведомлений, похожего на настоящий.
+ * <p>
+ * Для каждого процесса строится корректный проход по графу состояний
+ * {@code START1|START2, MID1, MID2, MID1, ..., FINAL1|FINAL2} с {@code seqNo} по порядку.
+ * Проходы {@code concurrentProcesses} процессов чередуются по кругу, после чего доставка портится:
+ * <ul>
+ *     <li>каждое уведомление сдвигается вперед не больше чем на {@code reorderDistance} позиций;</li>
+ *     <li>с вероятностью {@code duplicateRate} уведомление приходит еще раз, тоже со сдвигом;</li>
+ *     <li>с вероятностью {@code dropRate} уведомление не приходит вовсе;</li>
+ *     <li>с вероятностью {@code lateFinalRate} финальное уведомление процесса приходит последним в своей группе.</li>
+ * </ul>
+ * Проход процесса зависит только от {@code seed} и {@code processId} ({@link #walk(long)}),
+ * поэтому ожидаемый результат можно восстановить, не храня поток целиком
+ * @since 16.10.2026
+ */
+public final class LoadGenerator {
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final long seed;
+    private final int minWalkLength;
+    private final int maxWalkLength;
+    private final int concurrentProcesses;
+    private final int reorderDistance;
+    private final double duplicateRate;
+    private final double dropRate;
+    private final double lateFinalRate;
+
+    private LoadGenerator(Builder builder) {
+        this.seed = builder.seed;
+        this.minWalkLength = builder.minWalkLength;
+        this.maxWalkLength = builder.maxWalkLength;
+        this.concurrentProcesses = builder.concurrentProcesses;
+        this.reorderDistance = builder.reorderDistance;
+        this.duplicateRate = builder.duplicateRate;
+        this.dropRate = builder.dropRate;
+        this.lateFinalRate = builder.lateFinalRate;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return уведомления процессов {@code firstProcessId .. firstProcessId + processes - 1} в порядке доставки
+     */
+    public List<StateObject> generate(long firstProcessId, int processes) {
+        List<StateObject> result = new ArrayList<>();
+        generate(firstProcessId, processes, result::add);
+        return result;
+    }
+
+    /**
+     * Передает уведомления в {@code sink} группами по {@code concurrentProcesses} процессов,
+     * в памяти одновременно находится только одна группа
+     */
+    public void generate(long firstProcessId, long processes, Consumer<? super StateObject> sink) {
+        SplittableRandom random = new SplittableRandom(seed);
+        for (long offset = 0; offset < processes; offset += concurrentProcesses) {
+            int groupSize = (int) Math.min(concurrentProcesses, processes - offset);
+            deliverGroup(firstProcessId + offset, groupSize, random, sink);
+        }
+    }
+
+    /**
+     * @return проход процесса в порядке {@code seqNo}, то есть то, что должен выдать {@code drain},
+     * если все уведомления дошли
+     */
+    public List<StateObject> walk(long processId) {
+        SplittableRandom random = new SplittableRandom(seed ^ processId * GOLDEN_GAMMA);
+        int length = minWalkLength + random.nextInt(maxWalkLength - minWalkLength + 1);
+        List<StateObject> walk = new ArrayList<>(length);
+        walk.add(new StateObject(processId, random.nextBoolean() ? State.START1 : State.START2, 1));
+        for (int seqNo = 2; seqNo < length; seqNo++) {
+            walk.add(new StateObject(processId, seqNo % 2 == 0 ? State.MID1 : State.MID2, seqNo));
+        }
+        walk.add(new StateObject(processId, random.nextBoolean() ? State.FINAL1 : State.FINAL2, length));
+        return walk;
+    }
+
+    private void deliverGroup(long firstProcessId, int groupSize, SplittableRandom random,
+                              Consumer<? super StateObject> sink) {
+        List<List<StateObject>> walks = new ArrayList<>(groupSize);
+        int length = 0;
+        for (int i = 0; i < groupSize; i++) {
+            List<StateObject> walk = walk(firstProcessId + i);
+            walks.add(walk);
+            length = Math.max(length, walk.size());
+        }
+        List<Delivery> deliveries = new ArrayList<>();
+        List<StateObject> lateFinals = new ArrayList<>();
+        long position = 0;
+        for (int i = 0; i < length; i++) {
+            for (List<StateObject> walk : walks) {
+                if (i >= walk.size()) {
+                    continue;
+                }
+                StateObject stateObject = walk.get(i);
+                position++;
+                if (i == walk.size() - 1 && random.nextDouble() < lateFinalRate) {
+                    lateFinals.add(stateObject);
+                    continue;
+                }
+                if (random.nextDouble() < dropRate) {
+                    continue;
+                }
+                deliveries.add(new Delivery(shift(position, random), stateObject));
+                if (random.nextDouble() < duplicateRate) {
+                    deliveries.add(new Delivery(shift(position, random), stateObject));
+                }
+            }
+        }
+        // сортировка устойчива: при равных позициях сохраняется исходный порядок
+        deliveries.sort((first, second) -> Long.compare(first.position, second.position));
+        for (Delivery delivery : deliveries) {
+            sink.accept(delivery.stateObject);
+        }
+        for (StateObject stateObject : lateFinals) {
+            sink.accept(stateObject);
+        }
+    }
+
+    private long shift(long position, SplittableRandom random) {
+        return reorderDistance == 0 ? position : position + random.nextInt(reorderDistance + 1);
+    }
+
+    private static final class Delivery {
+        private final long position;
+        private final StateObject stateObject;
+
+        private Delivery(long position, StateObject stateObject) {
+            this.position = position;
+            this.stateObject = stateObject;
+        }
+    }
+
+    public static final class Builder {
+        private long seed = 42;
+        private int minWalkLength = 3;
+        private int maxWalkLength = 8;
+        private int concurrentProcesses = 1_000;
+        private int reorderDistance = 16;
+        private double duplicateRate;
+        private double dropRate;
+        private double lateFinalRate;
+
+        private Builder() {
+        }
+
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        /**
+         * Длина прохода выбирается равномерно из {@code [min, max]}, проход не короче {@code START, FINAL}
+         */
+        public Builder walkLength(int min, int max) {
+            if (min < 2 || max < min) {
+                throw new IllegalArgumentException("invalid walk length range: [" + min + ", " + max + "]");
+            }
+            this.minWalkLength = min;
+            this.maxWalkLength = max;
+            return this;
+        }
+
+        /**
+         * Сколько процессов одновременно "в полете" и перемешиваются между собой
+         */
+        public Builder concurrentProcesses(int concurrentProcesses) {
+            if (concurrentProcesses < 1) {
+                throw new IllegalArgumentException("concurrentProcesses must be positive: " + concurrentProcesses);
+            }
+            this.concurrentProcesses = concurrentProcesses;
+            return this;
+        }
+
+        public Builder reorderDistance(int reorderDistance) {
+            if (reorderDistance < 0) {
+                throw new IllegalArgumentException("reorderDistance must not be negative: " + reorderDistance);
+            }
+            this.reorderDistance = reorderDistance;
+            return this;
+        }
+
+        public Builder duplicateRate(double duplicateRate) {
+            this.duplicateRate = requireProbability(duplicateRate, "duplicateRate");
+            return this;
+        }
+
+        public Builder dropRate(double dropRate) {
+            this.dropRate = requireProbability(dropRate, "dropRate");
+            return this;
+        }
+
+        public Builder lateFinalRate(double lateFinalRate) {
+            this.lateFinalRate = requireProbability(lateFinalRate, "lateFinalRate");
+            return this;
+        }
+
+        public LoadGenerator build() {
+            return new LoadGenerator(this);
+        }
+
+        private static double requireProbability(double value, String name) {
+            if (!(value >= 0 && value <= 1)) {
+                throw new IllegalArgumentException(name + " must be in [0, 1]: " + value);
+            }
+            return value;
+        }
+    }
+}
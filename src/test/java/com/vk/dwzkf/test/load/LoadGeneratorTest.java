@@ -0,0 +1,77 @@
+package com.vk.dwzkf.test.load;
+
+import com.vk.dwzkf.test.Accumulator;
+import com.vk.dwzkf.test.AccumulatorFactory;
+import com.vk.dwzkf.test.StateObject;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * @since 16.10.2026
+ */
+public class LoadGeneratorTest {
+    private static final int PROCESSES = 5_000;
+
+    @Test
+    public void reorderedAndDuplicatedStreamDrainsToOriginalWalks() {
+        LoadGenerator generator = LoadGenerator.builder()
+                .walkLength(2, 12)
+                .concurrentProcesses(500)
+                .reorderDistance(2_000)
+                .duplicateRate(0.3)
+                .lateFinalRate(0.2)
+                .build();
+        List<StateObject> notifications = generator.generate(1, PROCESSES);
+        int walked = 0;
+        for (long processId = 1; processId <= PROCESSES; processId++) {
+            walked += generator.walk(processId).size();
+        }
+        Assertions.assertTrue(notifications.size() > walked, "no duplicates generated");
+
+        Accumulator accumulator = new AccumulatorFactory().getInstance();
+        accumulator.acceptAll(notifications);
+        for (long processId = 1; processId <= PROCESSES; processId++) {
+            Assertions.assertEquals(keys(generator.walk(processId)), keys(accumulator.drain(processId)));
+        }
+    }
+
+    @Test
+    public void withoutReorderingEachProcessArrivesInOrder() {
+        LoadGenerator generator = LoadGenerator.builder().reorderDistance(0).build();
+        Map<Long, Integer> lastSeqNo = new HashMap<>();
+        generator.generate(1, 3_000, stateObject -> {
+            Integer previous = lastSeqNo.put(stateObject.getProcessId(), stateObject.getSeqNo());
+            int expected = previous == null ? 1 : previous + 1;
+            Assertions.assertEquals(expected, stateObject.seqNoValue());
+        });
+        Assertions.assertEquals(3_000, lastSeqNo.size());
+    }
+
+    @Test
+    public void lateFinalsCloseTheirGroup() {
+        LoadGenerator generator = LoadGenerator.builder().concurrentProcesses(100).lateFinalRate(1).build();
+        List<StateObject> notifications = generator.generate(1, 100);
+        for (int i = 0; i < notifications.size(); i++) {
+            boolean isFinal = notifications.get(i).getState().name().startsWith("FINAL");
+            Assertions.assertEquals(i >= notifications.size() - 100, isFinal, "position " + i);
+        }
+    }
+
+    @Test
+    public void sameSeedGivesSameStream() {
+        LoadGenerator.Builder builder = LoadGenerator.builder().seed(7).duplicateRate(0.1).dropRate(0.1);
+        Assertions.assertEquals(keys(builder.build().generate(1, 1_000)), keys(builder.build().generate(1, 1_000)));
+        Assertions.assertTrue(LoadGenerator.builder().dropRate(1).build().generate(1, 1_000).isEmpty());
+    }
+
+    private static List<String> keys(List<StateObject> stateObjects) {
+        return stateObjects.stream()
+                .map(stateObject -> stateObject.getProcessId() + ":" + stateObject.getSeqNo())
+                .collect(Collectors.toList());
+    }
+}